@@ -0,0 +1,237 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import javaemul.internal.annotations.GwtIncompatible;
+
+import java.util.Arrays;
+
+/**
+ * A simple LZ77 style compressor over chars, intended for the DATA string literals of generated classes. The compressed
+ * form is a sequence of tokens, each starting with a number:
+ * <ul>
+ * <li>An even number is a run of literal chars, the number divided by two chars follow unchanged</li>
+ * <li>An odd number is a copy of earlier output, the number divided by two plus {@link #MIN_MATCH} chars long,
+ * followed by a second number holding the distance back minus one</li>
+ * </ul>
+ * Numbers are written 5 bits at a time, least significant first, using printable ASCII chars that need no escaping in a
+ * Java string literal: <code>]</code> to <code>|</code> when more digits follow and <code>(</code> to <code>G</code> for
+ * the last digit. Both ranges avoid <code>"</code>, <code>'</code> and <code>\</code>, literal chars are copied unchanged
+ * and may still need escaping.
+ * The decompressor is J2CL compatible and its result can be given to <code>StringDataInputDataOutput.input</code>.
+ */
+public final class CompressedChars {
+
+    /**
+     * Compresses the given text.
+     */
+    @GwtIncompatible
+    public static String compress(final CharSequence text) {
+        final int length = text.length();
+        final StringBuilder compressed = new StringBuilder();
+
+        final int[] head = new int[HASH_SIZE];
+        Arrays.fill(head, -1);
+        final int[] previous = new int[length];
+
+        int literalStart = 0;
+        int i = 0;
+
+        while (i < length) {
+            int bestLength = 0;
+            int bestDistance = 0;
+
+            if (i + MIN_MATCH <= length) {
+                final int hash = hash(text, i);
+                final int maxLength = Math.min(MAX_MATCH, length - i);
+
+                int candidate = head[hash];
+                int chain = MAX_CHAIN;
+                while (candidate >= 0 && i - candidate <= MAX_DISTANCE && chain > 0) {
+                    int matchLength = 0;
+                    while (matchLength < maxLength && text.charAt(candidate + matchLength) == text.charAt(i + matchLength)) {
+                        matchLength++;
+                    }
+                    if (matchLength > bestLength) {
+                        bestLength = matchLength;
+                        bestDistance = i - candidate;
+                        if (matchLength == maxLength) {
+                            break;
+                        }
+                    }
+                    candidate = previous[candidate];
+                    chain--;
+                }
+
+                previous[i] = head[hash];
+                head[hash] = i;
+            }
+
+            if (bestLength >= MIN_MATCH) {
+                literals(text, literalStart, i, compressed);
+                number((bestLength - MIN_MATCH) << 1 | 1, compressed);
+                number(bestDistance - 1, compressed);
+
+                final int end = i + bestLength;
+                for (int j = i + 1; j < end && j + MIN_MATCH <= length; j++) {
+                    final int hash = hash(text, j);
+                    previous[j] = head[hash];
+                    head[hash] = j;
+                }
+
+                i = end;
+                literalStart = end;
+            } else {
+                i++;
+            }
+        }
+
+        literals(text, literalStart, length, compressed);
+
+        return compressed.toString();
+    }
+
+    @GwtIncompatible
+    private static int hash(final CharSequence text,
+                            final int offset) {
+        return ((text.charAt(offset) * 31 + text.charAt(offset + 1)) * 31 + text.charAt(offset + 2)) & (HASH_SIZE - 1);
+    }
+
+    @GwtIncompatible
+    private static void literals(final CharSequence text,
+                                 final int start,
+                                 final int end,
+                                 final StringBuilder compressed) {
+        if (start < end) {
+            number((end - start) << 1, compressed);
+            compressed.append(text, start, end);
+        }
+    }
+
+    @GwtIncompatible
+    private static void number(final int value,
+                               final StringBuilder compressed) {
+        int remaining = value;
+        while (remaining >= DIGIT_COUNT) {
+            compressed.append((char) (MORE_DIGIT + (remaining & DIGIT_MASK)));
+            remaining = remaining >>> DIGIT_BITS;
+        }
+        compressed.append((char) (LAST_DIGIT + remaining));
+    }
+
+    /**
+     * Restores the text given to {@link #compress(CharSequence)}.
+     */
+    public static String decompress(final CharSequence compressed) {
+        return new CompressedChars(compressed)
+            .decompress0();
+    }
+
+    private CompressedChars(final CharSequence compressed) {
+        super();
+        this.compressed = compressed;
+    }
+
+    private String decompress0() {
+        final CharSequence compressed = this.compressed;
+        final int length = compressed.length();
+        final StringBuilder text = new StringBuilder();
+
+        while (this.position < length) {
+            final int token = this.number();
+            if (0 == (token & 1)) {
+                final int start = this.position;
+                final int end = start + (token >>> 1);
+                if (end > length) {
+                    throw new IllegalArgumentException("Invalid literal length " + (token >>> 1) + " at " + start);
+                }
+                text.append(compressed, start, end);
+                this.position = end;
+            } else {
+                final int copyLength = (token >>> 1) + MIN_MATCH;
+                final int distance = this.number() + 1;
+                final int start = text.length() - distance;
+                if (start < 0) {
+                    throw new IllegalArgumentException("Invalid distance " + distance + " at " + this.position);
+                }
+                for (int i = 0; i < copyLength; i++) {
+                    text.append(text.charAt(start + i));
+                }
+            }
+        }
+
+        return text.toString();
+    }
+
+    private int number() {
+        final CharSequence compressed = this.compressed;
+        final int length = compressed.length();
+
+        int value = 0;
+        int shift = 0;
+
+        for (; ; ) {
+            if (this.position >= length) {
+                throw new IllegalArgumentException("Missing number digit at " + this.position);
+            }
+            final char c = compressed.charAt(this.position++);
+            if (c >= MORE_DIGIT && c < MORE_DIGIT + DIGIT_COUNT) {
+                value |= (c - MORE_DIGIT) << shift;
+            } else {
+                if (c < LAST_DIGIT || c >= LAST_DIGIT + DIGIT_COUNT) {
+                    throw new IllegalArgumentException("Invalid number digit " + (int) c + " at " + (this.position - 1));
+                }
+                value |= (c - LAST_DIGIT) << shift;
+                break;
+            }
+            shift += DIGIT_BITS;
+            if (shift > 30) {
+                throw new IllegalArgumentException("Number too long at " + this.position);
+            }
+        }
+
+        return value;
+    }
+
+    private final CharSequence compressed;
+
+    private int position;
+
+    /**
+     * The shortest copy, a copy token with its distance takes at least two chars.
+     */
+    final static int MIN_MATCH = 3;
+
+    private final static int MAX_MATCH = 4096;
+
+    private final static int MAX_DISTANCE = 1 << 16;
+
+    private final static int MAX_CHAIN = 64;
+
+    private final static int HASH_SIZE = 1 << 16;
+
+    private final static int DIGIT_BITS = 5;
+
+    private final static int DIGIT_COUNT = 1 << DIGIT_BITS;
+
+    private final static int DIGIT_MASK = DIGIT_COUNT - 1;
+
+    private final static char LAST_DIGIT = '(';
+
+    private final static char MORE_DIGIT = ']';
+}
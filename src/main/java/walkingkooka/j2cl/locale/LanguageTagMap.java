@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import java.util.Objects;
+
+/**
+ * A map using open addressing over the {@link WalkingkookaLanguageTag#toKey() packed keys} of language tags, avoiding
+ * boxed keys and entry objects. This class is not thread safe, and is intended for use by emulated
+ * {@link java.util.Locale} aware classes holding values for each locale.
+ */
+public final class LanguageTagMap<V> {
+
+    /**
+     * Creates an empty {@link LanguageTagMap}.
+     */
+    public static <V> LanguageTagMap<V> empty() {
+        return new LanguageTagMap<>();
+    }
+
+    private LanguageTagMap() {
+        super();
+        this.allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns the value for the given {@link WalkingkookaLanguageTag} or null if absent.
+     */
+    public V get(final WalkingkookaLanguageTag tag) {
+        Objects.requireNonNull(tag, "tag");
+
+        return this.get(tag.key);
+    }
+
+    /**
+     * Returns the value for the given key or null if absent.
+     */
+    public V get(final long key) {
+        return WalkingkookaLanguageTag.NO_KEY == key ?
+            null :
+            this.get0(key);
+    }
+
+    /**
+     * Tries the {@link WalkingkookaLanguageTag} and then each language tag tried by
+     * {@link WalkingkookaLanguageTag#tryLookup(java.util.function.Function)}, such as <code>he-IL</code> and then
+     * <code>iw</code> for <code>iw-IL</code>, returning null if all are absent. The keys of the language tags are
+     * computed once for each {@link WalkingkookaLanguageTag}, so repeated lookups create no language tags.
+     */
+    public V getWithFallback(final WalkingkookaLanguageTag tag) {
+        Objects.requireNonNull(tag, "tag");
+
+        V value = null;
+        for (final long key : tag.fallbackKeys()) {
+            value = this.get0(key);
+            if (null != value) {
+                break;
+            }
+        }
+
+        return value;
+    }
+
+    private V get0(final long key) {
+        final long[] keys = this.keys;
+        final int mask = keys.length - 1;
+
+        int i = index(key, mask);
+        for (; ; ) {
+            final long k = keys[i];
+            if (key == k) {
+                return this.values[i];
+            }
+            if (WalkingkookaLanguageTag.NO_KEY == k) {
+                return null;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Adds or replaces the value for the given {@link WalkingkookaLanguageTag} returning any previous value.
+     * An {@link IllegalStateException} is thrown if the tag cannot be packed into a key.
+     */
+    public V put(final WalkingkookaLanguageTag tag,
+                 final V value) {
+        Objects.requireNonNull(tag, "tag");
+
+        return this.put(tag.toKey(), value);
+    }
+
+    /**
+     * Adds or replaces the value for the given key returning any previous value.
+     */
+    public V put(final long key,
+                 final V value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Invalid key " + key);
+        }
+        Objects.requireNonNull(value, "value");
+
+        if ((this.size + 1) * 2 > this.keys.length) {
+            this.resize();
+        }
+
+        final long[] keys = this.keys;
+        final int mask = keys.length - 1;
+
+        int i = index(key, mask);
+        for (; ; ) {
+            final long k = keys[i];
+            if (key == k) {
+                final V previous = this.values[i];
+                this.values[i] = value;
+                return previous;
+            }
+            if (WalkingkookaLanguageTag.NO_KEY == k) {
+                keys[i] = key;
+                this.values[i] = value;
+                this.size++;
+                return null;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void resize() {
+        final long[] keys = this.keys;
+        final V[] values = this.values;
+        final int capacity = keys.length;
+
+        this.allocate(capacity * 2);
+        this.size = 0;
+
+        for (int i = 0; i < capacity; i++) {
+            final long key = keys[i];
+            if (WalkingkookaLanguageTag.NO_KEY != key) {
+                this.put(key, values[i]);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(final int capacity) {
+        final long[] keys = new long[capacity];
+        for (int i = 0; i < capacity; i++) {
+            keys[i] = WalkingkookaLanguageTag.NO_KEY;
+        }
+        this.keys = keys;
+        this.values = (V[]) new Object[capacity];
+    }
+
+    /**
+     * Spreads the bits of the key, as most of the entropy is in the upper language bits.
+     */
+    private static int index(final long key,
+                             final int mask) {
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    private final static int INITIAL_CAPACITY = 16;
+
+    /**
+     * Empty slots hold {@link WalkingkookaLanguageTag#NO_KEY}, which is never a valid key.
+     */
+    private long[] keys;
+
+    private V[] values;
+
+    /**
+     * Returns the number of entries.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    private int size;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        final StringBuilder b = new StringBuilder();
+        b.append('{');
+
+        String separator = "";
+        final long[] keys = this.keys;
+        final int capacity = keys.length;
+
+        for (int i = 0; i < capacity; i++) {
+            final long key = keys[i];
+            if (WalkingkookaLanguageTag.NO_KEY != key) {
+                b.append(separator)
+                    .append(WalkingkookaLanguageTag.fromKey(key).toLanguageTag())
+                    .append('=')
+                    .append(this.values[i]);
+                separator = ", ";
+            }
+        }
+
+        return b.append('}')
+            .toString();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.text.CharSequences;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Reads the records written by the annotation processor <code>LocaleParentDeltaEncoder</code>, rebuilding each record
+ * from the fields that differ from its parent with the remaining fields copied from the parent record read earlier.
+ * The stream holds the field count and record count, followed by each language tag, the index of its parent plus one
+ * or zero if it has no parent, the bitmasks of the written fields and those fields.
+ */
+public final class LocaleParentDeltaDecoder {
+
+    /**
+     * The number of fields in each bitmask, which are written as non negative {@link VarInts}.
+     */
+    public final static int MASK_BITS = 31;
+
+    /**
+     * The number of bitmasks written for each record.
+     */
+    public static int maskCount(final int fieldCount) {
+        return (fieldCount + MASK_BITS - 1) / MASK_BITS;
+    }
+
+    /**
+     * Reads all records returning a {@link Map} of language tag to fields in the order they were written, parents
+     * before their children.
+     */
+    public static Map<String, String[]> read(final DataInput data) throws IOException {
+        final int fieldCount = VarInts.read(data);
+        final int count = VarInts.read(data);
+        final int maskCount = maskCount(fieldCount);
+
+        final String[][] records = new String[count][];
+        final Map<String, String[]> languageTagToFields = Maps.ordered();
+
+        for (int i = 0; i < count; i++) {
+            final String languageTag = data.readUTF();
+
+            final int parentIndex = VarInts.read(data);
+            if (parentIndex > i) {
+                throw new IOException("Invalid parent " + parentIndex + " for " + CharSequences.quote(languageTag));
+            }
+            final String[] parent = 0 == parentIndex ?
+                null :
+                records[parentIndex - 1];
+
+            final int[] masks = new int[maskCount];
+            for (int m = 0; m < maskCount; m++) {
+                masks[m] = VarInts.read(data);
+            }
+
+            final String[] fields = new String[fieldCount];
+            for (int f = 0; f < fieldCount; f++) {
+                if (0 != (masks[f / MASK_BITS] & (1 << (f % MASK_BITS)))) {
+                    fields[f] = data.readUTF();
+                } else {
+                    if (null == parent) {
+                        throw new IOException("Missing field " + f + " for " + CharSequences.quote(languageTag));
+                    }
+                    fields[f] = parent[f];
+                }
+            }
+
+            records[i] = fields;
+            languageTagToFields.put(languageTag, fields);
+        }
+
+        return languageTagToFields;
+    }
+
+    /**
+     * Stop creation
+     */
+    private LocaleParentDeltaDecoder() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.text.CharSequences;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads the index header written by the annotation processor <code>LocaleSectionDataOutput</code>, giving a
+ * {@link DataInput} for any single locale section without decoding the sections before it. The DATA has the form
+ * <code>header length;header body</code> where the header holds the flags, the section count and each language tag
+ * with the char offset of its section within the body. When {@link #DEDUPLICATED} is set, the section count is followed
+ * by the count and char offsets of the distinct sections, and each language tag is followed by the id of its section.
+ */
+public final class LocaleSectionIndex {
+
+    /**
+     * Header flag set when each section was written with a new string table.
+     */
+    public final static int STRING_TABLE = 1;
+
+    /**
+     * Header flag set when identical sections were written once and shared by several language tags.
+     */
+    public final static int DEDUPLICATED = 2;
+
+    /**
+     * Separates the decimal header length from the header.
+     */
+    public final static char HEADER_LENGTH_SEPARATOR = ';';
+
+    /**
+     * Reads the index header from the given DATA.
+     */
+    public static LocaleSectionIndex with(final String data) throws IOException {
+        Objects.requireNonNull(data, "data");
+
+        final int separator = data.indexOf(HEADER_LENGTH_SEPARATOR);
+        if (-1 == separator) {
+            throw new IOException("Missing header length");
+        }
+
+        final int headerLength;
+        try {
+            headerLength = Integer.parseInt(data.substring(0, separator));
+        } catch (final NumberFormatException cause) {
+            throw new IOException("Invalid header length " + CharSequences.quoteAndEscape(data.substring(0, separator)));
+        }
+
+        final int bodyStart = separator + 1 + headerLength;
+        if (headerLength < 0 || bodyStart > data.length()) {
+            throw new IOException("Invalid header length " + headerLength);
+        }
+
+        final DataInput header = StringDataInputDataOutput.input(
+            data.substring(separator + 1, bodyStart)
+        );
+
+        final int flags = VarInts.read(header);
+        final int count = VarInts.read(header);
+
+        final String[] languageTags = new String[count];
+        final Map<String, Integer> languageTagToId = Maps.hash();
+
+        final int bodyLength = data.length() - bodyStart;
+        final int[] offsets;
+
+        if (0 != (flags & DEDUPLICATED)) {
+            final int distinct = VarInts.read(header);
+            offsets = new int[distinct + 1];
+
+            int previous = 0;
+            for (int i = 0; i < distinct; i++) {
+                final int offset = VarInts.read(header);
+                if (offset < previous || offset > bodyLength) {
+                    throw new IOException("Invalid section offset " + offset + " for section " + i);
+                }
+                offsets[i] = offset;
+                previous = offset;
+            }
+            offsets[distinct] = bodyLength;
+
+            for (int i = 0; i < count; i++) {
+                final String languageTag = header.readUTF();
+                final int id = VarInts.read(header);
+                if (id >= distinct) {
+                    throw new IOException("Invalid section id " + id + " for " + CharSequences.quote(languageTag));
+                }
+
+                languageTags[i] = languageTag;
+                languageTagToId.put(languageTag, id);
+            }
+        } else {
+            offsets = new int[count + 1];
+
+            int previous = 0;
+            for (int i = 0; i < count; i++) {
+                final String languageTag = header.readUTF();
+                final int offset = VarInts.read(header);
+                if (offset < previous || offset > bodyLength) {
+                    throw new IOException("Invalid section offset " + offset + " for " + CharSequences.quote(languageTag));
+                }
+
+                languageTags[i] = languageTag;
+                offsets[i] = offset;
+                languageTagToId.put(languageTag, i);
+                previous = offset;
+            }
+            offsets[count] = bodyLength;
+        }
+
+        return new LocaleSectionIndex(
+            data,
+            bodyStart,
+            0 != (flags & STRING_TABLE),
+            languageTags,
+            offsets,
+            languageTagToId
+        );
+    }
+
+    private LocaleSectionIndex(final String data,
+                               final int bodyStart,
+                               final boolean stringTable,
+                               final String[] languageTags,
+                               final int[] offsets,
+                               final Map<String, Integer> languageTagToId) {
+        super();
+        this.data = data;
+        this.bodyStart = bodyStart;
+        this.stringTable = stringTable;
+        this.languageTags = languageTags;
+        this.offsets = offsets;
+        this.languageTagToId = languageTagToId;
+    }
+
+    /**
+     * The language tags of all sections in the order they were written.
+     */
+    public List<String> languageTags() {
+        return Lists.of(this.languageTags);
+    }
+
+    /**
+     * Returns true if a section exists for the given language tag.
+     */
+    public boolean contains(final String languageTag) {
+        return this.languageTagToId.containsKey(languageTag);
+    }
+
+    /**
+     * Returns a {@link DataInput} for anything written before the first section.
+     */
+    public DataInput prologue() {
+        return this.input(
+            0,
+            this.offsets[0]
+        );
+    }
+
+    /**
+     * Returns the id of the section for the given language tag. Language tags with identical sections share the same id,
+     * so anything read from a section may be shared by all its language tags.
+     */
+    public int sectionId(final String languageTag) {
+        final Integer id = this.languageTagToId.get(languageTag);
+        if (null == id) {
+            throw new IllegalArgumentException("Unknown section " + CharSequences.quoteIfChars(languageTag));
+        }
+        return id;
+    }
+
+    /**
+     * The number of distinct sections, which is less than the number of language tags when sections were deduplicated.
+     */
+    public int sectionCount() {
+        return this.offsets.length - 1;
+    }
+
+    /**
+     * Returns a {@link DataInput} that reads only the section for the given language tag.
+     */
+    public DataInput section(final String languageTag) {
+        final int id = this.sectionId(languageTag);
+        return this.input(
+            this.offsets[id],
+            this.offsets[id + 1]
+        );
+    }
+
+    private DataInput input(final int start,
+                            final int end) {
+        final int bodyStart = this.bodyStart;
+        final DataInput input = StringDataInputDataOutput.input(
+            this.data.substring(bodyStart + start, bodyStart + end)
+        );
+        return this.stringTable ?
+            StringTableDataInput.with(input) :
+            input;
+    }
+
+    private final String data;
+
+    private final int bodyStart;
+
+    private final boolean stringTable;
+
+    private final String[] languageTags;
+
+    /**
+     * The offset of each distinct section within the body, with an extra last element holding the body length.
+     */
+    private final int[] offsets;
+
+    private final Map<String, Integer> languageTagToId;
+
+    @Override
+    public String toString() {
+        return String.join(",", this.languageTags);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link DataInput} that reads strings written by the annotation processor <code>StringTableDataOutput</code>. Each
+ * {@link #readUTF()} reads a {@link VarInts} where zero is followed by a new string that is added to the table, and
+ * any other value is the one based index of an earlier string. All other reads are passed unchanged to the wrapped
+ * {@link DataInput}.
+ */
+public final class StringTableDataInput implements DataInput {
+
+    /**
+     * Creates a {@link DataInput} reading the given generated DATA.
+     */
+    public static DataInput input(final String data) {
+        return with(
+            StringDataInputDataOutput.input(data)
+        );
+    }
+
+    /**
+     * Wraps the given {@link DataInput}.
+     */
+    public static StringTableDataInput with(final DataInput input) {
+        Objects.requireNonNull(input, "input");
+
+        return new StringTableDataInput(input);
+    }
+
+    private StringTableDataInput(final DataInput input) {
+        super();
+        this.input = input;
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+        final int index = VarInts.read(this.input);
+        final List<String> table = this.table;
+        final String string;
+
+        if (0 == index) {
+            string = this.input.readUTF();
+            table.add(string);
+        } else {
+            if (index > table.size()) {
+                throw new IOException("Invalid string table index " + index + " > " + table.size());
+            }
+            string = table.get(index - 1);
+        }
+
+        return string;
+    }
+
+    /**
+     * Strings in the order they were first read.
+     */
+    private final List<String> table = Lists.array();
+
+    // DataInput........................................................................................................
+
+    @Override
+    public void readFully(final byte[] b) throws IOException {
+        this.input.readFully(b);
+    }
+
+    @Override
+    public void readFully(final byte[] b,
+                          final int off,
+                          final int len) throws IOException {
+        this.input.readFully(b, off, len);
+    }
+
+    @Override
+    public int skipBytes(final int n) throws IOException {
+        return this.input.skipBytes(n);
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return this.input.readBoolean();
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        return this.input.readByte();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return this.input.readUnsignedByte();
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        return this.input.readShort();
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return this.input.readUnsignedShort();
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        return this.input.readChar();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        return this.input.readInt();
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        return this.input.readLong();
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        return this.input.readFloat();
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        return this.input.readDouble();
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        return this.input.readLine();
+    }
+
+    private final DataInput input;
+
+    @Override
+    public String toString() {
+        return this.input.toString();
+    }
+}
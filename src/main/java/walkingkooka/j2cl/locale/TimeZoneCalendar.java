@@ -19,6 +19,7 @@ package walkingkooka.j2cl.locale;
 
 import javaemul.internal.annotations.GwtIncompatible;
 import walkingkooka.ToStringBuilder;
+import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessorTool;
 import walkingkooka.text.printer.IndentingPrinter;
 
 import java.io.DataInput;
@@ -55,10 +56,14 @@ public final class TimeZoneCalendar implements Comparable<TimeZoneCalendar> {
     public void generate(final DataOutput data,
                          final String prefix,
                          final IndentingPrinter comments) throws IOException {
-        comments.lineStart();
-        comments.print(prefix + "firstDayOfWeek: " + this.firstDayOfWeek);
-        comments.lineStart();
-        comments.print(prefix + "minimalDaysInFirstWeek: " + this.minimalDaysInFirstWeek);
+        LocaleAwareAnnotationProcessorTool.comment(
+            comments,
+            () -> prefix + "firstDayOfWeek: " + this.firstDayOfWeek
+        );
+        LocaleAwareAnnotationProcessorTool.comment(
+            comments,
+            () -> prefix + "minimalDaysInFirstWeek: " + this.minimalDaysInFirstWeek
+        );
 
         this.write(data);
     }
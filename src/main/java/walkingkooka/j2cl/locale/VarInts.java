@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Reads and writes non negative ints using 7 bits per byte, with the high bit set on all but the last byte. Small
+ * values such as dictionary indices and counts take a single byte instead of the four used by {@link DataOutput#writeInt(int)}.
+ */
+public final class VarInts {
+
+    /**
+     * Writes the non negative value.
+     */
+    public static void write(final int value,
+                             final DataOutput data) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid value " + value + " < 0");
+        }
+
+        int remaining = value;
+        while (remaining > MASK) {
+            data.writeByte((remaining & MASK) | CONTINUE);
+            remaining = remaining >>> BITS;
+        }
+        data.writeByte(remaining);
+    }
+
+    /**
+     * Reads a value written by {@link #write(int, DataOutput)}.
+     */
+    public static int read(final DataInput data) throws IOException {
+        int value = 0;
+        int shift = 0;
+
+        for (; ; ) {
+            final int b = data.readByte() & 0xFF;
+            value |= (b & MASK) << shift;
+            if (0 == (b & CONTINUE)) {
+                break;
+            }
+            shift += BITS;
+            if (shift > 28) {
+                throw new IOException("Invalid var int, too many bytes");
+            }
+        }
+
+        if (value < 0) {
+            throw new IOException("Invalid var int " + value + " < 0");
+        }
+        return value;
+    }
+
+    private final static int BITS = 7;
+
+    private final static int MASK = (1 << BITS) - 1;
+
+    private final static int CONTINUE = 1 << BITS;
+
+    /**
+     * Stop creation
+     */
+    private VarInts() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -20,21 +20,25 @@ package walkingkooka.j2cl.locale;
 import javaemul.internal.annotations.GwtIncompatible;
 import walkingkooka.NeverError;
 import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
 import walkingkooka.collect.set.Sets;
 import walkingkooka.collect.set.SortedSets;
 import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessorTool;
-import walkingkooka.predicate.Predicates;
-import walkingkooka.text.CaseSensitivity;
 import walkingkooka.text.CharSequences;
 import walkingkooka.text.CharacterConstant;
 
 import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -46,44 +50,10 @@ public final class WalkingkookaLanguageTag {
 
     /**
      * Helper that accepts a comma separated list if filters, with support for wildcard which matches everything
-     * and trailing wildcards.
+     * and trailing wildcards. Tokens beginning with <code>!</code> exclude matching language tags, eg <code>EN-*,!EN-GB</code>.
      */
     public static Predicate<String> filter(final String filter) {
-        CharSequences.failIfNullOrEmpty(filter, "filter");
-
-        final String[] tokens = filter.split(",");
-        if (tokens.length == 0) {
-            throw new IllegalArgumentException("Filter empty");
-        }
-
-        Predicate<String> predicate = Predicates.never();
-        String toString = filter;
-
-        for (final String token : tokens) {
-            if (token.equals("*")) {
-                predicate = Predicates.always();
-                toString = "*";
-                break;
-            }
-
-            final int wildcard = token.indexOf("*");
-            final int length = token.length();
-            if (-1 != wildcard) {
-                if (wildcard != length - 1) {
-                    throw new IllegalArgumentException("Bad filter " + CharSequences.quoteAndEscape(token) + " only trailing wildcards supported.");
-                }
-
-                // EN* matches EN and EN* anything after.
-                final String beforeWildcard = token.substring(0, token.length() - 1);
-                predicate = predicate.or(Predicates.charSequenceStartsWith(CaseSensitivity.INSENSITIVE, beforeWildcard))
-                    .or(Predicate.isEqual(beforeWildcard));
-                continue;
-            }
-
-            predicate = predicate.or(token::equalsIgnoreCase);
-        }
-
-        return Predicates.customToString(predicate, toString);
+        return WalkingkookaLanguageTagFilter.parse(filter);
     }
 
     public final static CharacterConstant SEPARATOR = CharacterConstant.with('-');
@@ -99,49 +69,134 @@ public final class WalkingkookaLanguageTag {
     /**
      * The filter may have multiple patterns separated by csvs, each pattern can end in a wildcard or star.
      * An annotation processor could fetch the filter from a system property and use that to filter requested locales language tags
-     * for final processing.
+     * for final processing. Results are cached for the life of the JVM, filters that only differ in case or the order of
+     * tokens share the same immutable {@link Set}.
      */
     @GwtIncompatible
     public static Set<String> all(final String filter) {
-        return all0(filter(filter));
+        final WalkingkookaLanguageTagFilter predicate = WalkingkookaLanguageTagFilter.parse(filter);
+        final String normalized = predicate.normalized();
+
+        Set<String> all = ALL.get(normalized);
+        if (null == all) {
+            all = all0(predicate);
+
+            final Set<String> previous = ALL.putIfAbsent(normalized, all);
+            if (null != previous) {
+                all = previous;
+            }
+        }
+        return all;
     }
 
+    /**
+     * Cache of {@link #all(String)} results keyed by the normalized filter.
+     */
+    @GwtIncompatible
+    private final static Map<String, Set<String>> ALL = Maps.concurrent();
+
     @GwtIncompatible
     private static Set<String> all0(final Predicate<String> filter) {
         final Set<String> all = SortedSets.tree();
 
-        for (final java.util.Locale locale : java.util.Locale.getAvailableLocales()) {
-            if (locale.getExtensionKeys().size() > 0) {
-                continue;
-            }
-
-            final String languageTag = locale.toLanguageTag();
+        for (final String[] languageTagAndAlternative : available()) {
+            final String languageTag = languageTagAndAlternative[0];
             if (false == filter.test(languageTag)) {
                 continue;
             }
 
             all.add(languageTag);
 
-            final String language = locale.getLanguage();
-            if (language.equals("und")) {
-                continue;
+            final String alternative = languageTagAndAlternative[1];
+            if (null != alternative) {
+                all.add(alternative);
             }
+        }
 
-            final String languageFixed = WalkingkookaLanguageTag.oldToNewLanguage(language);
-            if (languageFixed.equals(language)) {
-                continue;
-            }
+        all.forEach(WalkingkookaLanguageTag::intern);
 
-            if (WalkingkookaLanguageTag.isUnsupported(languageTag)) {
-                continue;
-            }
+        return WalkingkookaLanguageTagSortedArraySet.with(
+            all.toArray(new String[0])
+        );
+    }
 
-            final String alt = language + languageTag.substring(languageFixed.length());
-            java.util.Locale.forLanguageTag(alt); // if alt is invalid this will fail.
-            all.add(alt);
+    /**
+     * Returns each available {@link java.util.Locale} language tag, and its alternate language form or null, enumerating
+     * the JDK locales only once.
+     */
+    @GwtIncompatible
+    private static String[][] available() {
+        String[][] available = AVAILABLE;
+        if (null == available) {
+            available = available0();
+            AVAILABLE = available;
         }
+        return available;
+    }
 
-        return Sets.readOnly(all);
+    /**
+     * Enumerates the JDK locales in parallel, the results keep the order of {@link java.util.Locale#getAvailableLocales()}
+     * so they are identical to a sequential enumeration.
+     */
+    @GwtIncompatible
+    private static String[][] available0() {
+        return ForkJoinPool.commonPool()
+            .invoke(
+                WalkingkookaLanguageTagAvailableTask.with(java.util.Locale.getAvailableLocales())
+            );
+    }
+
+    /**
+     * Returns the language tag and its alternate form or null, or null if the {@link java.util.Locale} should be ignored.
+     */
+    @GwtIncompatible
+    static String[] available(final java.util.Locale locale) {
+        if (locale.getExtensionKeys().size() > 0) {
+            return null;
+        }
+
+        final String languageTag = locale.toLanguageTag();
+        return new String[]{
+            languageTag,
+            alternative(locale, languageTag)
+        };
+    }
+
+    /**
+     * Returns the language tag using the old language, eg <code>iw-IL</code> for <code>he-IL</code> or null if none exists.
+     */
+    @GwtIncompatible
+    private static String alternative(final java.util.Locale locale,
+                                      final String languageTag) {
+        final String language = locale.getLanguage();
+        if (language.equals("und")) {
+            return null;
+        }
+
+        final String languageFixed = WalkingkookaLanguageTag.oldToNewLanguage(language);
+        if (languageFixed.equals(language)) {
+            return null;
+        }
+
+        if (WalkingkookaLanguageTag.isUnsupported(languageTag)) {
+            return null;
+        }
+
+        final String alt = language + languageTag.substring(languageFixed.length());
+        java.util.Locale.forLanguageTag(alt); // if alt is invalid this will fail.
+        return alt;
+    }
+
+    @GwtIncompatible
+    private static volatile String[][] AVAILABLE;
+
+    /**
+     * Clears the cached available locales and {@link #all(String)} results, intended for tests.
+     */
+    @GwtIncompatible
+    static void invalidateAll() {
+        AVAILABLE = null;
+        ALL.clear();
     }
 
     /**
@@ -182,15 +237,43 @@ public final class WalkingkookaLanguageTag {
     public final static String LOCALE_COMPONENT_SEPARATOR = ",";
 
     /**
-     * Locales are comma separated and their components are slash separated.
+     * Locales are comma separated and their components are slash separated. The dictionary encoding written by
+     * {@link #encode(Collection, DataOutput)} is also supported.
      */
     public static List<WalkingkookaLanguageTag> decode(final DataInput encoded) throws IOException {
-        final int count = encoded.readInt();
         final List<WalkingkookaLanguageTag> decoded = Lists.array();
+        decoded.addAll(decodeLazy(encoded));
+        return decoded;
+    }
+
+    /**
+     * Reads the same encodings as {@link #decode(DataInput)} but returns an immutable {@link List} that only reads the
+     * encoded components for each entry, creating the {@link WalkingkookaLanguageTag} on the first get.
+     */
+    public static List<WalkingkookaLanguageTag> decodeLazy(final DataInput encoded) throws IOException {
+        final int count = encoded.readInt();
+        if (count < 0) {
+            if (ENCODING_VERSION_1 != count) {
+                throw new IOException("Unsupported encoding version " + count);
+            }
+            return decodeVersion1(encoded);
+        }
+
+        final String[] entries = new String[count];
         for (int i = 0; i < count; i++) {
-            decoded.add(decode0(encoded.readUTF()));
+            entries[i] = encoded.readUTF();
         }
-        return decoded;
+        return WalkingkookaLanguageTagLazyList.with(
+            count,
+            (i) -> decode(entries[i])
+        );
+    }
+
+    /**
+     * Decodes and interns a single encoded entry.
+     */
+    static WalkingkookaLanguageTag decode(final String encoded) {
+        return intern(decode0(encoded));
     }
 
     public final static int TAG_INDEX = 0;
@@ -201,152 +284,565 @@ public final class WalkingkookaLanguageTag {
 
     /**
      * Accepts a {@link String} with components separated by a slashes and locale component groupings separated by a commas.
-     * Missing components default to an empty {@link String}.
+     * Missing components default to an empty {@link String}, and if only the tag is present it is also the language.
+     * Components are found with a simple scan for the separator rather than a regex split.
      */
     private static WalkingkookaLanguageTag decode0(final String encoded) {
-        final String[] components = encoded.split("\\" + LOCALE_COMPONENT_SEPARATOR);
+        final String[] components = new String[SCRIPT_INDEX + 1];
+        final char separator = LOCALE_COMPONENT_SEPARATOR.charAt(0);
+        final int length = encoded.length();
+
+        int last = -1;
+        int index = 0;
+        int start = 0;
+
+        for (; ; ) {
+            int end = encoded.indexOf(separator, start);
+            if (-1 == end) {
+                end = length;
+            }
 
-        final String tag;
-        final String language;
-        final String country;
-        final String variant;
-        final String script;
+            if (start < end) {
+                if (index > SCRIPT_INDEX) {
+                    throw new NeverError("Bad encoding " + CharSequences.quote(encoded));
+                }
+                components[index] = encoded.substring(start, end);
+                last = index;
+            }
 
-        switch (components.length) {
-            case 0:
-                tag = "";
-                language = "";
-                country = "";
-                variant = "";
-                script = "";
-                break;
-            case 1:
-                tag = components[TAG_INDEX];
-                language = tag;
-                country = "";
-                variant = "";
-                script = "";
-                break;
-            case 2:
-                tag = components[TAG_INDEX];
-                language = components[LANGUAGE_INDEX];
-                country = "";
-                variant = "";
-                script = "";
+            if (end == length) {
                 break;
-            case 3:
-                tag = components[TAG_INDEX];
-                language = components[LANGUAGE_INDEX];
-                country = components[COUNTRY_INDEX];
-                variant = "";
-                script = "";
-                break;
-            case 4:
-                tag = components[TAG_INDEX];
-                language = components[LANGUAGE_INDEX];
-                country = components[COUNTRY_INDEX];
-                variant = components[VARIANT_INDEX];
-                script = "";
-                break;
-            case 5:
-                tag = components[TAG_INDEX];
-                language = components[LANGUAGE_INDEX];
-                country = components[COUNTRY_INDEX];
-                variant = components[VARIANT_INDEX];
-                script = components[SCRIPT_INDEX];
-                break;
-            default:
-                throw new NeverError("Bad encoding " + CharSequences.quote(encoded));
+            }
+            index++;
+            start = end + 1;
         }
 
+        final String tag = component(components, TAG_INDEX);
+
         return with(tag,
-            language,
-            country,
-            variant,
-            script);
+            TAG_INDEX == last ?
+                tag :
+                component(components, LANGUAGE_INDEX),
+            component(components, COUNTRY_INDEX),
+            component(components, VARIANT_INDEX),
+            component(components, SCRIPT_INDEX));
+    }
+
+    private static String component(final String[] components,
+                                    final int index) {
+        final String component = components[index];
+        return null != component ?
+            component :
+            "";
     }
 
+    // encode.........................................................................................................
+
     /**
-     * Parses the source language tag into a {@link WalkingkookaLanguageTag}.
+     * Marks the dictionary encoding written by {@link #encode(Collection, DataOutput)}, the older comma separated
+     * encoding begins with a count which is never negative.
      */
-    public static WalkingkookaLanguageTag parse(final String source) {
-        final String language;
-        final String script;
-        final String country;
-        final String variant;
+    final static int ENCODING_VERSION_1 = -1;
 
-        final String[] components = source.split("-");
-        final int count = components.length;
-        switch (count) {
-            case 0:
-                throw new NeverError("parse " + CharSequences.quote(source) + " split gave 0 tokens");
-            case 1:
-                language = components[0];
-                script = "";
-                country = "";
-                variant = "";
+    private final static int ENCODED_LANGUAGE = 0;
+    private final static int ENCODED_SCRIPT = ENCODED_LANGUAGE + 1; // 1
+    private final static int ENCODED_COUNTRY = ENCODED_SCRIPT + 1; // 2
+    private final static int ENCODED_VARIANT = ENCODED_COUNTRY + 1; // 3
+    private final static int ENCODED_COMPONENT_COUNT = ENCODED_VARIANT + 1; // 4
 
-                break;
-            default:
-                language = components[0];
+    /**
+     * Bit set in the header of each tag when the tag text follows, because it cannot be computed from the components.
+     */
+    private final static int ENCODED_EXPLICIT_TAG = 1;
 
-                final String b = components[1];
-                final String c;
+    /**
+     * Writes the tags in a form read by {@link #decode(DataInput)}.
+     * <ol>
+     * <li>The {@link #ENCODING_VERSION_1} marker</li>
+     * <li>A sorted dictionary of languages, scripts, countries and variants, each a var int count followed by each value</li>
+     * <li>A var int count of tags</li>
+     * <li>Each tag as a var int header holding the number of leading components shared with the previous tag and the explicit tag bit,
+     * then a var int dictionary index for each remaining component, then the tag text if explicit</li>
+     * </ol>
+     * Sorted lists benefit the most as neighbouring tags usually share their language and often their script.
+     */
+    public static void encode(final Collection<WalkingkookaLanguageTag> tags,
+                              final DataOutput data) throws IOException {
+        Objects.requireNonNull(tags, "tags");
+        Objects.requireNonNull(data, "data");
+
+        final int count = tags.size();
+        final String[][] components = new String[count][];
+        int i = 0;
+        for (final WalkingkookaLanguageTag tag : tags) {
+            components[i++] = tag.encodedComponents();
+        }
 
-                switch (count) {
-                    case 2:
-                        c = "";
-                        break;
-                    default:
-                        // simplified handling not perfect.
-                        c = components[count - 1];
-                        break;
+        data.writeInt(ENCODING_VERSION_1);
+
+        final List<Map<String, Integer>> dictionaries = Lists.array();
+        for (int c = 0; c < ENCODED_COMPONENT_COUNT; c++) {
+            final Set<String> values = SortedSets.tree();
+            for (final String[] tagComponents : components) {
+                values.add(tagComponents[c]);
+            }
+
+            VarInts.write(values.size(), data);
+
+            final Map<String, Integer> indices = Maps.ordered();
+            for (final String value : values) {
+                indices.put(value, indices.size());
+                data.writeUTF(value);
+            }
+            dictionaries.add(indices);
+        }
+
+        VarInts.write(count, data);
+
+        String[] previous = null;
+        i = 0;
+        for (final WalkingkookaLanguageTag tag : tags) {
+            final String[] tagComponents = components[i++];
+
+            int shared = 0;
+            if (null != previous) {
+                while (shared < ENCODED_COMPONENT_COUNT && tagComponents[shared].equals(previous[shared])) {
+                    shared++;
                 }
+            }
+
+            final boolean explicit = tag.isTagExplicit();
+            VarInts.write(
+                shared << 1 | (explicit ? ENCODED_EXPLICIT_TAG : 0),
+                data
+            );
+
+            for (int c = shared; c < ENCODED_COMPONENT_COUNT; c++) {
+                VarInts.write(dictionaries.get(c).get(tagComponents[c]), data);
+            }
+
+            if (explicit) {
+                data.writeUTF(tag.toLanguageTag());
+            }
+
+            previous = tagComponents;
+        }
+    }
+
+    private String[] encodedComponents() {
+        final String[] components = new String[ENCODED_COMPONENT_COUNT];
+        components[ENCODED_LANGUAGE] = this.language();
+        components[ENCODED_SCRIPT] = this.script();
+        components[ENCODED_COUNTRY] = this.country();
+        components[ENCODED_VARIANT] = this.variant();
+        return components;
+    }
+
+    /**
+     * Returns true if the tag text differs from the text computed from the components.
+     */
+    private boolean isTagExplicit() {
+        return false == this.tagComputed &&
+            false == this.toLanguageTag()
+                .equals(
+                    new WalkingkookaLanguageTag(null,
+                        this.language(),
+                        this.country(),
+                        this.variant(),
+                        this.script()
+                    ).toLanguageTag()
+                );
+    }
+
+    /**
+     * Reads the dictionaries and the component references of every tag, leaving the creation of each tag to the first get.
+     */
+    private static List<WalkingkookaLanguageTag> decodeVersion1(final DataInput encoded) throws IOException {
+        final String[][] dictionaries = new String[ENCODED_COMPONENT_COUNT][];
+        for (int c = 0; c < ENCODED_COMPONENT_COUNT; c++) {
+            final String[] dictionary = new String[VarInts.read(encoded)];
+            for (int j = 0; j < dictionary.length; j++) {
+                dictionary[j] = encoded.readUTF();
+            }
+            dictionaries[c] = dictionary;
+        }
 
-                if (b.isEmpty()) {
-                    country = "";
-                    script = "";
-                    variant = "";
+        final int count = VarInts.read(encoded);
+        final String[][] components = new String[count][];
+        final String[] tags = new String[count];
+
+        String[] previous = null;
+        for (int i = 0; i < count; i++) {
+            final int header = VarInts.read(encoded);
+            final int shared = header >>> 1;
+            if (shared > ENCODED_COMPONENT_COUNT || (shared > 0 && null == previous)) {
+                throw new IOException("Invalid shared component count " + shared + " for tag " + i);
+            }
+
+            final String[] tagComponents = new String[ENCODED_COMPONENT_COUNT];
+            for (int c = 0; c < ENCODED_COMPONENT_COUNT; c++) {
+                if (c < shared) {
+                    tagComponents[c] = previous[c];
                 } else {
-                    // false == isNumbers means ar-001 determines that the 001 is country and not script.
-                    if (false == isNumbers(b) && b.equals(titleCase(b))) {
-                        script = b;
-                        country = c;
-                        variant = "";
-                    } else {
-                        country = b;
-                        variant = c;
-                        script = "";
+                    final String[] dictionary = dictionaries[c];
+                    final int index = VarInts.read(encoded);
+                    if (index >= dictionary.length) {
+                        throw new IOException("Invalid dictionary index " + index + " for tag " + i);
                     }
+                    tagComponents[c] = dictionary[index];
                 }
-                break;
+            }
+
+            if (0 != (header & ENCODED_EXPLICIT_TAG)) {
+                tags[i] = encoded.readUTF();
+            }
+
+            components[i] = tagComponents;
+            previous = tagComponents;
         }
 
-        return with(null,
-            language,
-            country,
-            variant,
-            script);
+        return WalkingkookaLanguageTagLazyList.with(
+            count,
+            (i) -> {
+                final String[] tagComponents = components[i];
+                return intern(
+                    with(tags[i],
+                        tagComponents[ENCODED_LANGUAGE],
+                        tagComponents[ENCODED_COUNTRY],
+                        tagComponents[ENCODED_VARIANT],
+                        tagComponents[ENCODED_SCRIPT])
+                );
+            }
+        );
+    }
+
+    /**
+     * Parses the source language tag into a {@link WalkingkookaLanguageTag}. Known language tags return their canonical
+     * instance.
+     */
+    public static WalkingkookaLanguageTag parse(final String source) {
+        final WalkingkookaLanguageTag canonical = CANONICAL.get(source);
+        return null != canonical ?
+            canonical :
+            parse(source, 0, source.length());
+    }
+
+    /**
+     * Parses the language tag within the given range of characters without copying the range. The BCP 47 subtag
+     * structure is followed with a few lenient JRE compatible rules:
+     * <ul>
+     * <li>The first extlang replaces the language, eg <code>zh-yue-HK</code> has a language of <code>yue</code></li>
+     * <li>Any subtag after the region that is not a singleton is a variant, eg <code>no-NO-NY</code></li>
+     * <li>Multiple variants are joined by underscores, eg <code>sl-IT-rozaj-biske</code> has a variant of <code>rozaj_biske</code></li>
+     * <li>Extensions are ignored, a private use <code>x-lvariant</code> is appended to the variant</li>
+     * </ul>
+     * Only the component {@link String strings} and the result are allocated.
+     */
+    public static WalkingkookaLanguageTag parse(final CharSequence source,
+                                                final int start,
+                                                final int end) {
+        Objects.requireNonNull(source, "source");
+        if (start < 0 || start > end || end > source.length()) {
+            throw new IndexOutOfBoundsException("Invalid range " + start + ".." + end + " for length " + source.length());
+        }
+
+        int languageStart = -1;
+        int languageEnd = -1;
+        int extlangCount = 0;
+        int scriptStart = -1;
+        int regionStart = -1;
+        int regionEnd = -1;
+        int variantStart = -1;
+        int variantEnd = -1;
+        int privateVariantStart = -1;
+        int privateVariantEnd = -1;
+
+        int mode = PARSE_LANGUAGE;
+        int i = start;
+
+        while (i < end) {
+            int subtagEnd = i;
+            while (subtagEnd < end && SEPARATOR.character() != source.charAt(subtagEnd)) {
+                subtagEnd++;
+            }
+
+            final int length = subtagEnd - i;
+            if (length > 0) {
+                switch (mode) {
+                    case PARSE_PRIVATE_USE:
+                        if (isLvariant(source, i, length)) {
+                            mode = PARSE_PRIVATE_USE_VARIANT;
+                        }
+                        break;
+                    case PARSE_PRIVATE_USE_VARIANT:
+                        if (-1 == privateVariantStart) {
+                            privateVariantStart = i;
+                        }
+                        privateVariantEnd = subtagEnd;
+                        break;
+                    case PARSE_LANGUAGE:
+                        if (isPrivateUseSingleton(source, i, length)) {
+                            mode = PARSE_PRIVATE_USE;
+                            break;
+                        }
+                        languageStart = i;
+                        languageEnd = subtagEnd;
+                        mode = PARSE_EXTLANG;
+                        break;
+                    default:
+                        if (1 == length) {
+                            mode = isPrivateUseSingleton(source, i, length) ?
+                                PARSE_PRIVATE_USE :
+                                PARSE_EXTENSION;
+                            break;
+                        }
+                        if (PARSE_EXTENSION == mode) {
+                            break;
+                        }
+                        if (PARSE_EXTLANG == mode && 3 == length && extlangCount < 3 && isAlpha(source, i, subtagEnd)) {
+                            if (0 == extlangCount) {
+                                languageStart = i;
+                                languageEnd = subtagEnd;
+                            }
+                            extlangCount++;
+                            break;
+                        }
+                        if (mode < PARSE_REGION && 4 == length && isAlpha(source, i, subtagEnd)) {
+                            scriptStart = i;
+                            mode = PARSE_REGION;
+                            break;
+                        }
+                        if (mode < PARSE_VARIANT && (2 == length && isAlpha(source, i, subtagEnd) || 3 == length && isDigits(source, i, subtagEnd))) {
+                            regionStart = i;
+                            regionEnd = subtagEnd;
+                            mode = PARSE_VARIANT;
+                            break;
+                        }
+                        if (-1 == variantStart) {
+                            variantStart = i;
+                        }
+                        variantEnd = subtagEnd;
+                        mode = PARSE_VARIANT;
+                        break;
+                }
+            }
+
+            i = subtagEnd + 1;
+        }
+
+        final String variant = variant(source, variantStart, variantEnd, privateVariantStart, privateVariantEnd);
+
+        final long key = pack(
+            packLanguage(source, languageStart, languageEnd),
+            -1 == scriptStart ?
+                0 :
+                packScript(source, scriptStart, scriptStart + 4),
+            packRegion(source, regionStart, regionEnd),
+            packVariant(variant)
+        );
+
+        return canonical(
+            NO_KEY != key ?
+                new WalkingkookaLanguageTag(key) :
+                new WalkingkookaLanguageTag(
+                    null,
+                    -1 == languageStart ?
+                        "" :
+                        lowerCase(source, languageStart, languageEnd),
+                    -1 == regionStart ?
+                        "" :
+                        upperCase(source, regionStart, regionEnd),
+                    variant,
+                    -1 == scriptStart ?
+                        "" :
+                        titleCase(source, scriptStart, scriptStart + 4)
+                )
+        );
+    }
+
+    // modes in the order subtags may appear.
+    private final static int PARSE_LANGUAGE = 0;
+    private final static int PARSE_EXTLANG = 1;
+    private final static int PARSE_REGION = 2; // a script may appear before this
+    private final static int PARSE_VARIANT = 3;
+    private final static int PARSE_EXTENSION = 4;
+    private final static int PARSE_PRIVATE_USE = 5;
+    private final static int PARSE_PRIVATE_USE_VARIANT = 6;
+
+    private static boolean isPrivateUseSingleton(final CharSequence source,
+                                                 final int start,
+                                                 final int length) {
+        final char c = source.charAt(start);
+        return 1 == length && ('x' == c || 'X' == c);
+    }
+
+    private static boolean isLvariant(final CharSequence source,
+                                      final int start,
+                                      final int length) {
+        boolean lvariant = LVARIANT.length() == length;
+        for (int i = 0; lvariant && i < length; i++) {
+            lvariant = LVARIANT.charAt(i) == toLowerCase(source.charAt(start + i));
+        }
+        return lvariant;
+    }
+
+    private final static String LVARIANT = "lvariant";
+
+    private static boolean isAlpha(final CharSequence source,
+                                   final int start,
+                                   final int end) {
+        boolean alpha = true;
+        for (int i = start; alpha && i < end; i++) {
+            final char c = toLowerCase(source.charAt(i));
+            alpha = c >= 'a' && c <= 'z';
+        }
+        return alpha;
     }
 
     /**
      * This is used to match Locales such as ar-001 where 001 should be interpreted as the "country".
-     * Rather than hardcode a test for is this 001 we test for numbers.
      */
-    private static boolean isNumbers(final String text) {
-        boolean numbers = true;
-        for (final char c : text.toCharArray()) {
-            numbers &= Character.isDigit(c);
+    private static boolean isDigits(final CharSequence source,
+                                    final int start,
+                                    final int end) {
+        boolean digits = true;
+        for (int i = start; digits && i < end; i++) {
+            final char c = source.charAt(i);
+            digits = c >= '0' && c <= '9';
         }
-        return numbers;
+        return digits;
     }
 
-    private static String titleCase(final String text) {
-        return text.isEmpty() ?
-            "" :
-            Character.toUpperCase(text.charAt(0)) + text.substring(1).toLowerCase();
+    private static String lowerCase(final CharSequence source,
+                                    final int start,
+                                    final int end) {
+        return changeCase(source, start, end, 0);
+    }
+
+    private static String upperCase(final CharSequence source,
+                                    final int start,
+                                    final int end) {
+        return changeCase(source, start, end, end);
+    }
+
+    private static String titleCase(final CharSequence source,
+                                    final int start,
+                                    final int end) {
+        return changeCase(source, start, end, start + 1);
     }
 
+    /**
+     * Returns the characters within the range, with all characters before upperEnd upper cased and the remainder lower cased.
+     * If no character changes the range is simply copied.
+     */
+    private static String changeCase(final CharSequence source,
+                                     final int start,
+                                     final int end,
+                                     final int upperEnd) {
+        char[] changed = null;
+
+        for (int i = start; i < end; i++) {
+            final char c = source.charAt(i);
+            final char d = i < upperEnd ?
+                toUpperCase(c) :
+                toLowerCase(c);
+            if (c != d && null == changed) {
+                changed = new char[end - start];
+                for (int j = start; j < i; j++) {
+                    changed[j - start] = source.charAt(j);
+                }
+            }
+            if (null != changed) {
+                changed[i - start] = d;
+            }
+        }
+
+        return null != changed ?
+            new String(changed) :
+            source.subSequence(start, end).toString();
+    }
+
+    private static char toLowerCase(final char c) {
+        return c >= 'A' && c <= 'Z' ?
+            (char) (c + ('a' - 'A')) :
+            c;
+    }
+
+    private static char toUpperCase(final char c) {
+        return c >= 'a' && c <= 'z' ?
+            (char) (c - ('a' - 'A')) :
+            c;
+    }
+
+    /**
+     * Joins the variant subtags and any private use lvariant with underscores to match {@link Locale#getVariant()}.
+     */
+    private static String variant(final CharSequence source,
+                                  final int variantStart,
+                                  final int variantEnd,
+                                  final int privateVariantStart,
+                                  final int privateVariantEnd) {
+        final int variantLength = -1 != variantStart ?
+            variantEnd - variantStart :
+            0;
+        final int privateVariantLength = -1 != privateVariantStart ?
+            privateVariantEnd - privateVariantStart :
+            0;
+
+        final String variant;
+        if (0 == variantLength + privateVariantLength) {
+            variant = "";
+        } else {
+            if (0 == privateVariantLength && false == contains(source, variantStart, variantEnd, SEPARATOR.character())) {
+                variant = source.subSequence(variantStart, variantEnd).toString();
+            } else {
+                if (0 == variantLength && false == contains(source, privateVariantStart, privateVariantEnd, SEPARATOR.character())) {
+                    variant = source.subSequence(privateVariantStart, privateVariantEnd).toString();
+                } else {
+                    final char[] chars = new char[variantLength + privateVariantLength + (variantLength > 0 && privateVariantLength > 0 ? 1 : 0)];
+                    int j = copyVariant(source, variantStart, variantStart + variantLength, chars, 0);
+                    if (j > 0 && privateVariantLength > 0) {
+                        chars[j] = VARIANT_SEPARATOR;
+                        j++;
+                    }
+                    copyVariant(source, privateVariantStart, privateVariantStart + privateVariantLength, chars, j);
+                    variant = new String(chars);
+                }
+            }
+        }
+
+        return variant;
+    }
+
+    private static boolean contains(final CharSequence source,
+                                    final int start,
+                                    final int end,
+                                    final char c) {
+        boolean contains = false;
+        for (int i = start; false == contains && i < end; i++) {
+            contains = c == source.charAt(i);
+        }
+        return contains;
+    }
+
+    private static int copyVariant(final CharSequence source,
+                                   final int start,
+                                   final int end,
+                                   final char[] chars,
+                                   final int offset) {
+        int j = offset;
+        for (int i = start; i < end; i++) {
+            final char c = source.charAt(i);
+            chars[j] = SEPARATOR.character() == c ?
+                VARIANT_SEPARATOR :
+                c;
+            j++;
+        }
+        return j;
+    }
+
+    private final static char VARIANT_SEPARATOR = '_';
+
     /**
      * Makes the language lower case and substitutes new language codes with old to match JRE behaviour.
      */
@@ -426,53 +922,185 @@ public final class WalkingkookaLanguageTag {
                                                final String country,
                                                final String variant,
                                                final String script) {
-        return new WalkingkookaLanguageTag(tag,
-            language.toLowerCase(),
-            country.toUpperCase(),
+        return canonical(
+            new WalkingkookaLanguageTag(tag,
+                language.toLowerCase(),
+                country.toUpperCase(),
+                variant,
+                script)
+        );
+    }
+
+    // canonical........................................................................................................
+
+    /**
+     * The maximum number of canonical instances, well above the number of JDK locales and their alternatives, so
+     * decoding unexpected data cannot grow the pools without limit.
+     */
+    private final static int CANONICAL_MAX = 4096;
+
+    /**
+     * Canonical instances of known language tags keyed by the language tag text they were parsed from. Only tags returned
+     * by {@link #all()} or read by {@link #decode(DataInput)} are added, so arbitrary parsed input never grows the pool.
+     * Every value is equal to parsing its key, which allows {@link #parse(String)} to skip parsing.
+     */
+    private final static WalkingkookaLanguageTagPool<String, WalkingkookaLanguageTag> CANONICAL = WalkingkookaLanguageTagPool.with(
+        CANONICAL_MAX
+    );
+
+    /**
+     * Canonical instances with a key and without an explicit language tag, which allows finding the canonical instance
+     * for a packed {@link WalkingkookaLanguageTag} without materializing any {@link String strings}.
+     */
+    private final static WalkingkookaLanguageTagPool<Long, WalkingkookaLanguageTag> CANONICAL_KEYS = WalkingkookaLanguageTagPool.with(
+        CANONICAL_MAX
+    );
+
+    /**
+     * Returns the canonical instance if one equal to the given {@link WalkingkookaLanguageTag} exists.
+     */
+    private static WalkingkookaLanguageTag canonical(final WalkingkookaLanguageTag tag) {
+        final WalkingkookaLanguageTag canonical = tag.isKeyOnly() ?
+            CANONICAL_KEYS.get(tag.key) :
+            CANONICAL.get(tag.toLanguageTag());
+        return null != canonical && canonical.equals0(tag) ?
+            canonical :
+            tag;
+    }
+
+    private static void putCanonical(final String languageTag,
+                                     final WalkingkookaLanguageTag tag) {
+        CANONICAL.putIfAbsent(languageTag, tag);
+        if (tag.isKeyOnly()) {
+            CANONICAL_KEYS.putIfAbsent(tag.key, tag);
+        }
+    }
+
+    /**
+     * Adds the parsed language tag to the canonical pool if absent.
+     */
+    private static void intern(final String languageTag) {
+        if (null == CANONICAL.get(languageTag)) {
+            putCanonical(languageTag, parse(languageTag, 0, languageTag.length()));
+        }
+    }
+
+    /**
+     * Adds the decoded {@link WalkingkookaLanguageTag} to the canonical pool, if it matches what parsing its language tag
+     * would produce, returning the canonical instance.
+     */
+    private static WalkingkookaLanguageTag intern(final WalkingkookaLanguageTag tag) {
+        final String languageTag = tag.toLanguageTag();
+
+        WalkingkookaLanguageTag canonical = CANONICAL.get(languageTag);
+        if (null == canonical) {
+            if (tag.equals0(parse(languageTag, 0, languageTag.length()))) {
+                putCanonical(languageTag, tag);
+                canonical = CANONICAL.get(languageTag);
+            }
+        }
+
+        return null != canonical && canonical.equals0(tag) ?
+            canonical :
+            tag;
+    }
+
+    /**
+     * Trying to match the ctor ordering of the real {link java.util.Locale}.
+     */
+    private WalkingkookaLanguageTag(final String tag,
+                                    final String language,
+                                    final String country,
+                                    final String variant,
+                                    final String script) {
+        this(tag,
+            pack(language, country, variant, script),
+            language,
+            country,
             variant,
             script);
     }
 
     /**
-     * Trying to match the ctor ordering of the real {link java.util.Locale}.
+     * Creates a {@link WalkingkookaLanguageTag} that materializes its components from the key when they are first asked for.
      */
+    private WalkingkookaLanguageTag(final long key) {
+        this(null,
+            key,
+            null,
+            null,
+            null,
+            null);
+    }
+
     private WalkingkookaLanguageTag(final String tag,
+                                    final long key,
                                     final String language,
                                     final String country,
                                     final String variant,
                                     final String script) {
         super();
 
-        this.language = language;
-        this.country = country;
-        this.script = script;
-        this.variant = variant;
         this.tag = tag;
+        this.tagComputed = null == tag;
+        this.key = key;
+
+        if (NO_KEY == key) {
+            this.language = language;
+            this.country = country;
+            this.script = script;
+            this.variant = variant;
+
+            this.hashCode = Objects.hash(country, language, variant, script);
+        } else {
+            // the components will be materialized from the key when asked for
+            this.hashCode = (int) (key ^ (key >>> 32));
+        }
     }
 
     public String language() {
-        return this.language;
+        String language = this.language;
+        if (null == language) {
+            language = unpackLanguage(this.key);
+            this.language = language;
+        }
+        return language;
     }
 
-    private final String language;
+    private String language;
 
     public String country() {
-        return this.country;
+        String country = this.country;
+        if (null == country) {
+            country = unpackRegion(this.key);
+            this.country = country;
+        }
+        return country;
     }
 
-    private final String country;
+    private String country;
 
     public String script() {
-        return this.script;
+        String script = this.script;
+        if (null == script) {
+            script = unpackScript(this.key);
+            this.script = script;
+        }
+        return script;
     }
 
-    private final String script;
+    private String script;
 
     public String variant() {
-        return this.variant;
+        String variant = this.variant;
+        if (null == variant) {
+            variant = unpackVariant(this.key);
+            this.variant = variant;
+        }
+        return variant;
     }
 
-    private final String variant;
+    private String variant;
 
     public String toLanguageTag() {
         if (null == this.tag) {
@@ -488,11 +1116,11 @@ public final class WalkingkookaLanguageTag {
             final String country = this.country();
             if (false == CharSequences.isNullOrEmpty(country)) {
                 tag = tag + SEPARATOR + country;
+            }
 
-                final String variant = this.variant();
-                if (false == CharSequences.isNullOrEmpty(variant)) {
-                    tag = tag + SEPARATOR + variant;
-                }
+            final String variant = this.variant();
+            if (false == CharSequences.isNullOrEmpty(variant)) {
+                tag = tag + SEPARATOR + variant.replace(VARIANT_SEPARATOR, SEPARATOR.character());
             }
 
             this.tag = tag;
@@ -502,49 +1130,524 @@ public final class WalkingkookaLanguageTag {
 
     private String tag;
 
+    /**
+     * When true the tag was not given and is computed from the components.
+     */
+    private final boolean tagComputed;
+
+    // key..............................................................................................................
+
+    /**
+     * Returns the {@link WalkingkookaLanguageTag} for a key previously returned by {@link #toKey()}.
+     */
+    public static WalkingkookaLanguageTag fromKey(final long key) {
+        if (false == isKey(key)) {
+            throw new IllegalArgumentException("Invalid key " + key);
+        }
+        return new WalkingkookaLanguageTag(key);
+    }
+
+    /**
+     * Returns a key that packs the language, script, country and variant into a single long. Keys sort by language,
+     * script and then country, dropping components is achieved by masking, and the {@link String components} are only
+     * created when asked for. Keys with a variant hold an index into the variants registered by this JVM or page, so
+     * keys that differ only by variant sort in registration order rather than by the variant text, and should never be
+     * persisted. Explicit language tags given to {@link #with(String, String, String, String, String)}
+     * are not part of the key.
+     * <br>
+     * An {@link IllegalStateException} is thrown if the language is not 2 or 3 letters, the script is not 4 letters
+     * in title case or the country is not 2 letters or 3 digits.
+     */
+    public long toKey() {
+        final long key = this.key;
+        if (NO_KEY == key) {
+            throw new IllegalStateException("Unable to pack " + CharSequences.quoteAndEscape(this.toLanguageTag()));
+        }
+        return key;
+    }
+
+    /**
+     * The key or {@link #NO_KEY} if the components cannot be packed.
+     */
+    final long key;
+
+    /**
+     * Only key instances without an explicit tag are completely identified by their key.
+     */
+    private boolean isKeyOnly() {
+        return NO_KEY != this.key && this.tagComputed;
+    }
+
+    final static long NO_KEY = -1;
+
+    private final static int LANGUAGE_SHIFT = 48;
+    private final static int SCRIPT_SHIFT = 28;
+    private final static int REGION_SHIFT = 16;
+
+    final static long LANGUAGE_MASK = 0x7FFFL << LANGUAGE_SHIFT;
+    final static long SCRIPT_MASK = 0xFFFFFL << SCRIPT_SHIFT;
+    final static long REGION_MASK = 0xFFFL << REGION_SHIFT;
+    final static long VARIANT_MASK = 0xFFFFL;
+
+    private final static int LETTER_BITS = 5;
+    private final static int LETTER_MASK = (1 << LETTER_BITS) - 1;
+
+    /**
+     * Two letter regions are offset by this value, three digit regions are stored as 1 + number and sort first.
+     */
+    private final static int REGION_LETTERS = 1024;
+    private final static int REGION_DIGITS_MAX = 1000;
+
+    private static long pack(final String language,
+                             final String country,
+                             final String variant,
+                             final String script) {
+        return null == language || null == country || null == variant || null == script || false == isTitleCase(script) ?
+            NO_KEY :
+            pack(
+                packLanguage(language, 0, language.length()),
+                packScript(script, 0, script.length()),
+                packRegion(country, 0, country.length()),
+                packVariant(variant)
+            );
+    }
+
+    private static long pack(final int language,
+                             final int script,
+                             final int region,
+                             final int variant) {
+        return -1 == language || -1 == script || -1 == region || -1 == variant ?
+            NO_KEY :
+            (long) language << LANGUAGE_SHIFT |
+                (long) script << SCRIPT_SHIFT |
+                (long) region << REGION_SHIFT |
+                variant;
+    }
+
+    private static boolean isTitleCase(final String text) {
+        boolean titleCase = true;
+
+        final int length = text.length();
+        for (int i = 0; titleCase && i < length; i++) {
+            final char c = text.charAt(i);
+            titleCase = c == (0 == i ? toUpperCase(c) : toLowerCase(c));
+        }
+        return titleCase;
+    }
+
+    /**
+     * Languages of 2 letters leave the last letter empty, so they sort before 3 letter languages. Absent languages have
+     * a negative start.
+     */
+    private static int packLanguage(final CharSequence chars,
+                                    final int start,
+                                    final int end) {
+        final int packed;
+
+        switch (end - start) {
+            case 0:
+                packed = 0;
+                break;
+            case 2:
+                packed = packLetters(chars, start, end) << LETTER_BITS;
+                break;
+            case 3:
+                packed = packLetters(chars, start, end);
+                break;
+            default:
+                packed = -1;
+                break;
+        }
+
+        return packed < 0 ?
+            -1 :
+            packed;
+    }
+
+    private static int packScript(final CharSequence chars,
+                                  final int start,
+                                  final int end) {
+        final int packed;
+
+        switch (end - start) {
+            case 0:
+                packed = 0;
+                break;
+            case 4:
+                packed = packLetters(chars, start, end);
+                break;
+            default:
+                packed = -1;
+                break;
+        }
+
+        return packed;
+    }
+
+    private static int packRegion(final CharSequence chars,
+                                  final int start,
+                                  final int end) {
+        final int packed;
+
+        switch (end - start) {
+            case 0:
+                packed = 0;
+                break;
+            case 2:
+                final int letters = packLetters(chars, start, end);
+                packed = -1 == letters ?
+                    -1 :
+                    REGION_LETTERS + letters;
+                break;
+            case 3:
+                packed = isDigits(chars, start, end) ?
+                    1 + (chars.charAt(start) - '0') * 100 + (chars.charAt(start + 1) - '0') * 10 + chars.charAt(start + 2) - '0' :
+                    -1;
+                break;
+            default:
+                packed = -1;
+                break;
+        }
+
+        return packed;
+    }
+
+    private static int packLetters(final CharSequence chars,
+                                   final int start,
+                                   final int end) {
+        int packed = 0;
+
+        for (int i = start; i < end; i++) {
+            final char c = toLowerCase(chars.charAt(i));
+            if (c < 'a' || c > 'z') {
+                packed = -1;
+                break;
+            }
+            packed = packed << LETTER_BITS | c - 'a' + 1;
+        }
+
+        return packed;
+    }
+
+    private static int packVariant(final String variant) {
+        return variant.isEmpty() ?
+            0 :
+            variantIndex(variant);
+    }
+
+    private static String unpackLanguage(final long key) {
+        final int language = (int) ((key & LANGUAGE_MASK) >>> LANGUAGE_SHIFT);
+
+        return 0 == language ?
+            "" :
+            0 == (language & LETTER_MASK) ?
+                unpackLetters(language >> LETTER_BITS, 2, 0) :
+                unpackLetters(language, 3, 0);
+    }
+
+    private static String unpackScript(final long key) {
+        final int script = (int) ((key & SCRIPT_MASK) >>> SCRIPT_SHIFT);
+
+        return 0 == script ?
+            "" :
+            unpackLetters(script, 4, 1);
+    }
+
+    private static String unpackRegion(final long key) {
+        final int region = (int) ((key & REGION_MASK) >>> REGION_SHIFT);
+
+        final String unpacked;
+        if (0 == region) {
+            unpacked = "";
+        } else {
+            if (region < REGION_LETTERS) {
+                final int number = region - 1;
+                unpacked = new String(
+                    new char[]{
+                        (char) ('0' + number / 100),
+                        (char) ('0' + number / 10 % 10),
+                        (char) ('0' + number % 10)
+                    }
+                );
+            } else {
+                unpacked = unpackLetters(region - REGION_LETTERS, 2, 2);
+            }
+        }
+
+        return unpacked;
+    }
+
+    /**
+     * Unpacks the letters, with the given count of leading letters in upper case.
+     */
+    private static String unpackLetters(final int packed,
+                                        final int count,
+                                        final int upperCount) {
+        final char[] chars = new char[count];
+
+        int letters = packed;
+        for (int i = count - 1; i >= 0; i--) {
+            final char c = (char) ('a' - 1 + (letters & LETTER_MASK));
+            chars[i] = i < upperCount ?
+                toUpperCase(c) :
+                c;
+            letters = letters >> LETTER_BITS;
+        }
+
+        return new String(chars);
+    }
+
+    private static String unpackVariant(final long key) {
+        final int variant = (int) (key & VARIANT_MASK);
+        return 0 == variant ?
+            "" :
+            variants[variant - 1];
+    }
+
+    private static boolean isKey(final long key) {
+        final int language = (int) ((key & LANGUAGE_MASK) >>> LANGUAGE_SHIFT);
+        final int script = (int) ((key & SCRIPT_MASK) >>> SCRIPT_SHIFT);
+        final int region = (int) ((key & REGION_MASK) >>> REGION_SHIFT);
+        final int variant = (int) (key & VARIANT_MASK);
+
+        return key >= 0 &&
+            (0 == language || isLetters(language >> LETTER_BITS, 2) && (language & LETTER_MASK) <= 'z' - 'a' + 1) &&
+            (0 == script || isLetters(script, 4)) &&
+            (0 == region || region <= REGION_DIGITS_MAX || region >= REGION_LETTERS && isLetters(region - REGION_LETTERS, 2)) &&
+            variant <= variants.length;
+    }
+
+    private static boolean isLetters(final int packed,
+                                     final int count) {
+        boolean letters = packed < 1 << LETTER_BITS * count;
+
+        int remaining = packed;
+        for (int i = 0; letters && i < count; i++) {
+            final int letter = remaining & LETTER_MASK;
+            letters = letter >= 1 && letter <= 'z' - 'a' + 1;
+            remaining = remaining >> LETTER_BITS;
+        }
+        return letters;
+    }
+
+    /**
+     * Returns the index of the variant plus one, registering the variant if necessary or -1 if there are too many.
+     */
+    private static int variantIndex(final String variant) {
+        final Integer index = VARIANT_INDICES.get(variant);
+        return null != index ?
+            index :
+            registerVariant(variant);
+    }
+
+    private static synchronized int registerVariant(final String variant) {
+        Integer index = VARIANT_INDICES.get(variant);
+        if (null == index) {
+            final String[] variants = WalkingkookaLanguageTag.variants;
+            final int count = variants.length;
+            if (count >= VARIANT_MAX) {
+                return -1;
+            }
+
+            final String[] copy = new String[count + 1];
+            System.arraycopy(variants, 0, copy, 0, count);
+            copy[count] = variant;
+            WalkingkookaLanguageTag.variants = copy;
+
+            index = count + 1;
+            VARIANT_INDICES.putIfAbsent(variant, index);
+        }
+        return index;
+    }
+
+    /**
+     * Registered variants, replaced with a larger copy when a new variant is registered.
+     */
+    private static volatile String[] variants = new String[0];
+
+    /**
+     * The maximum number of registered variants, far more than the JDK locales use, so parsing arbitrary variants never
+     * grows the pool without limit. Later variants are not packed and {@link #toKey()} fails for them.
+     */
+    private final static int VARIANT_MAX = 256;
+
+    private final static WalkingkookaLanguageTagPool<String, Integer> VARIANT_INDICES = WalkingkookaLanguageTagPool.with(
+        VARIANT_MAX
+    );
+
+    // lookup...........................................................................................................
+
     /**
      * Intended internal helper that tries with the given {@link WalkingkookaLanguageTag} dropping script and variant and
      * then country until only the language is left or earlier success.
      */
     public <T> Optional<T> tryLookup(final Function<String, T> lookup) {
-        final T result = lookup.apply(this.toLanguageTag());
+        for (final String candidate : this.fallbacks()) {
+            final T result = lookup.apply(candidate);
+            if (null != result) {
+                return Optional.of(result);
+            }
+        }
 
-        return null == result ?
-            this.variant.length() + this.script.length() > 0 ? // if it has script or variant try without those
-                this.tryLookupWithoutScriptAndVariant(lookup) :
-                this.tryLookupWithoutCountry(lookup) : // try without country last possible try.
-            Optional.of(result);
+        return Optional.empty();
     }
 
-    private <T> Optional<T> tryLookupWithoutScriptAndVariant(final Function<String, T> lookup) {
-        final T result = lookup.apply(new WalkingkookaLanguageTag(null, this.language, this.country, "", "").toLanguageTag());
-        return null == result ?
-            this.tryLookupWithoutCountry(lookup) :
-            Optional.of(result);
+    /**
+     * Performs a {@link #tryLookup(Function)} for each {@link WalkingkookaLanguageTag}, with each candidate language tag
+     * given to the lookup {@link Function} at most once, so tags sharing a fallback such as <code>en-AU</code> and
+     * <code>en-NZ</code> share the lookup of <code>en</code>. The returned {@link Map} is in iteration order.
+     */
+    public static <T> Map<WalkingkookaLanguageTag, Optional<T>> tryLookupAll(final Collection<WalkingkookaLanguageTag> tags,
+                                                                                final Function<String, T> lookup) {
+        Objects.requireNonNull(tags, "tags");
+        Objects.requireNonNull(lookup, "lookup");
+
+        final Map<WalkingkookaLanguageTag, Optional<T>> results = Maps.ordered();
+        final Map<String, Optional<T>> candidateResults = Maps.ordered();
+
+        for (final WalkingkookaLanguageTag tag : tags) {
+            if (results.containsKey(tag)) {
+                continue;
+            }
+
+            Optional<T> result = Optional.empty();
+
+            for (final String candidate : tag.fallbacks()) {
+                Optional<T> candidateResult = candidateResults.get(candidate);
+                if (null == candidateResult) {
+                    candidateResult = Optional.ofNullable(lookup.apply(candidate));
+                    candidateResults.put(candidate, candidateResult);
+                }
+                if (candidateResult.isPresent()) {
+                    result = candidateResult;
+                    break;
+                }
+            }
+
+            results.put(tag, result);
+        }
+
+        return Collections.unmodifiableMap(results);
     }
 
-    private <T> Optional<T> tryLookupWithoutCountry(final Function<String, T> lookup) {
-        return Optional.ofNullable(lookup.apply(this.language));
+    /**
+     * The language tags tried in order by {@link #tryLookup(Function)}, the language tag, then without script and variant
+     * if either is present and lastly the language. These are computed once and shared by all lookups.
+     */
+    private String[] fallbacks() {
+        String[] fallbacks = this.fallbacks;
+
+        if (null == fallbacks) {
+            final String tag = this.toLanguageTag();
+            final String language = this.language();
+
+            if (this.variant().length() + this.script().length() > 0) {
+                final String country = this.country();
+                final String withoutScriptAndVariant = country.isEmpty() ?
+                    oldToNewLanguage(language) :
+                    oldToNewLanguage(language) + SEPARATOR + country;
+
+                fallbacks = withoutScriptAndVariant.equals(tag) ?
+                    fallbacks(tag, language) :
+                    withoutScriptAndVariant.equals(language) ?
+                        fallbacks(tag, language) :
+                        new String[]{
+                            tag,
+                            withoutScriptAndVariant,
+                            language
+                        };
+            } else {
+                fallbacks = fallbacks(tag, language);
+            }
+
+            this.fallbacks = fallbacks;
+        }
+
+        return fallbacks;
+    }
+
+    private static String[] fallbacks(final String tag,
+                                      final String language) {
+        return tag.equals(language) ?
+            new String[]{tag} :
+            new String[]{tag, language};
+    }
+
+    /**
+     * Lazily computed by {@link #fallbacks()}, a race may compute this twice but both results are equal.
+     */
+    private String[] fallbacks;
+
+    /**
+     * The key of this tag followed by the keys of parsing each of the {@link #fallbacks()} in order, without duplicates
+     * or {@link #NO_KEY}. The key of this tag comes first, as it excludes any explicit language tag, which is also tried
+     * as the first fallback.
+     */
+    long[] fallbackKeys() {
+        long[] fallbackKeys = this.fallbackKeys;
+
+        if (null == fallbackKeys) {
+            final String[] fallbacks = this.fallbacks();
+            final long[] keys = new long[1 + fallbacks.length];
+            int count = 0;
+
+            if (NO_KEY != this.key) {
+                keys[count++] = this.key;
+            }
+
+            for (final String fallback : fallbacks) {
+                final long key = parse(fallback).key;
+                if (NO_KEY != key && false == contains(keys, count, key)) {
+                    keys[count++] = key;
+                }
+            }
+
+            fallbackKeys = new long[count];
+            System.arraycopy(keys, 0, fallbackKeys, 0, count);
+            this.fallbackKeys = fallbackKeys;
+        }
+
+        return fallbackKeys;
     }
 
+    private static boolean contains(final long[] keys,
+                                    final int count,
+                                    final long key) {
+        boolean contains = false;
+        for (int i = 0; false == contains && i < count; i++) {
+            contains = key == keys[i];
+        }
+        return contains;
+    }
+
+    /**
+     * Lazily computed by {@link #fallbackKeys()}, a race may compute this twice but both results are equal.
+     */
+    private long[] fallbackKeys;
+
     // Object...........................................................................................................
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.country, this.language, this.variant, this.script);
+        return this.hashCode;
     }
 
+    private final int hashCode;
+
     @Override
     public boolean equals(final Object other) {
         return this == other || other instanceof WalkingkookaLanguageTag && this.equals0((WalkingkookaLanguageTag) other);
     }
 
     private boolean equals0(final WalkingkookaLanguageTag other) {
-        return Objects.equals(this.country, other.country) &&
-            Objects.equals(this.language, other.language) &&
-            Objects.equals(this.variant, other.variant) &&
-            Objects.equals(this.script, other.script) &&
-            Objects.equals(this.toLanguageTag(), other.toLanguageTag());
+        return this.hashCode == other.hashCode &&
+            (NO_KEY != this.key && NO_KEY != other.key ?
+                this.key == other.key :
+                Objects.equals(this.country(), other.country()) &&
+                    Objects.equals(this.language(), other.language()) &&
+                    Objects.equals(this.variant(), other.variant()) &&
+                    Objects.equals(this.script(), other.script())) &&
+            (this.tagComputed && other.tagComputed || Objects.equals(this.toLanguageTag(), other.toLanguageTag()));
     }
 
     @Override
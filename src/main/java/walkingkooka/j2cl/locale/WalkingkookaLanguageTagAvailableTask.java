@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import javaemul.internal.annotations.GwtIncompatible;
+
+import java.util.Locale;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A {@link RecursiveTask} that splits the available {@link Locale locales} into ranges, computing the language tag
+ * and alternate form of each. Results are joined left then right so they remain in the original order.
+ */
+@GwtIncompatible
+final class WalkingkookaLanguageTagAvailableTask extends RecursiveTask<String[][]> {
+
+    static WalkingkookaLanguageTagAvailableTask with(final Locale[] locales) {
+        return new WalkingkookaLanguageTagAvailableTask(locales, 0, locales.length);
+    }
+
+    private WalkingkookaLanguageTagAvailableTask(final Locale[] locales,
+                                                 final int start,
+                                                 final int end) {
+        super();
+        this.locales = locales;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    protected String[][] compute() {
+        final int start = this.start;
+        final int end = this.end;
+
+        final String[][] available;
+        if (end - start <= THRESHOLD) {
+            available = this.computeDirectly();
+        } else {
+            final int middle = (start + end) >>> 1;
+
+            final WalkingkookaLanguageTagAvailableTask left = new WalkingkookaLanguageTagAvailableTask(this.locales, start, middle);
+            left.fork();
+
+            final String[][] right = new WalkingkookaLanguageTagAvailableTask(this.locales, middle, end)
+                .compute();
+            available = concat(left.join(), right);
+        }
+        return available;
+    }
+
+    private String[][] computeDirectly() {
+        final Locale[] locales = this.locales;
+        final int start = this.start;
+        final String[][] available = new String[this.end - start][];
+
+        int count = 0;
+        for (int i = start; i < this.end; i++) {
+            final String[] languageTagAndAlternative = WalkingkookaLanguageTag.available(locales[i]);
+            if (null != languageTagAndAlternative) {
+                available[count++] = languageTagAndAlternative;
+            }
+        }
+
+        return count == available.length ?
+            available :
+            copy(available, count);
+    }
+
+    private static String[][] concat(final String[][] left,
+                                     final String[][] right) {
+        final String[][] both = copy(left, left.length + right.length);
+        System.arraycopy(right, 0, both, left.length, right.length);
+        return both;
+    }
+
+    private static String[][] copy(final String[][] array,
+                                   final int length) {
+        final String[][] copy = new String[length][];
+        System.arraycopy(array, 0, copy, 0, Math.min(array.length, length));
+        return copy;
+    }
+
+    /**
+     * Ranges of this many locales or fewer are not split further.
+     */
+    private final static int THRESHOLD = 64;
+
+    private final Locale[] locales;
+
+    private final int start;
+
+    private final int end;
+}
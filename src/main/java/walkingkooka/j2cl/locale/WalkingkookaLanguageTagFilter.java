@@ -0,0 +1,247 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import walkingkooka.collect.set.SortedSets;
+import walkingkooka.text.CharSequences;
+
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A {@link Predicate} compiled from a comma separated filter into a case insensitive trie, so testing a language tag
+ * costs a single walk over its characters regardless of the number of tokens in the filter.
+ * <ul>
+ * <li><code>*</code> matches everything</li>
+ * <li><code>EN</code> matches only <code>EN</code> ignoring case</li>
+ * <li><code>EN*</code> matches <code>EN</code> and anything beginning with <code>EN</code></li>
+ * <li><code>!EN-GB</code> or <code>!EN-GB*</code> excludes matches, exclusions always win</li>
+ * </ul>
+ * Empty tokens are ignored and a filter with only exclusions includes everything else.
+ */
+final class WalkingkookaLanguageTagFilter implements Predicate<String> {
+
+    static WalkingkookaLanguageTagFilter parse(final String filter) {
+        CharSequences.failIfNullOrEmpty(filter, "filter");
+
+        final Node root = new Node();
+        final Set<String> normalized = SortedSets.tree();
+        final StringBuilder exclusions = new StringBuilder();
+        boolean wildcard = false;
+        boolean includes = false;
+        int tokens = 0;
+
+        final int length = filter.length();
+        int start = 0;
+
+        while (start <= length) {
+            int end = filter.indexOf(TOKEN_SEPARATOR, start);
+            if (-1 == end) {
+                end = length;
+            }
+
+            final String token = filter.substring(start, end);
+            start = end + 1;
+            if (token.isEmpty()) {
+                continue;
+            }
+            tokens++;
+            normalized.add(upperCase(token));
+
+            final boolean exclude = token.startsWith(EXCLUDE);
+            final String pattern = exclude ?
+                token.substring(EXCLUDE.length()) :
+                token;
+
+            final int wildcardIndex = pattern.indexOf(WILDCARD);
+            final int patternLength = pattern.length();
+            if (-1 != wildcardIndex && wildcardIndex != patternLength - 1) {
+                throw new IllegalArgumentException("Bad filter " + CharSequences.quoteAndEscape(token) + " only trailing wildcards supported.");
+            }
+
+            final boolean prefix = -1 != wildcardIndex;
+            root.add(
+                pattern,
+                prefix ?
+                    patternLength - 1 :
+                    patternLength,
+                exclude ?
+                    prefix ? EXCLUDE_PREFIX : EXCLUDE_EXACT :
+                    prefix ? INCLUDE_PREFIX : INCLUDE_EXACT
+            );
+
+            if (exclude) {
+                exclusions.append(TOKEN_SEPARATOR)
+                    .append(token);
+            } else {
+                includes = true;
+                wildcard |= 1 == patternLength && prefix;
+            }
+        }
+
+        if (0 == tokens) {
+            throw new IllegalArgumentException("Filter empty");
+        }
+
+        if (false == includes) {
+            root.flags |= INCLUDE_PREFIX;
+        }
+
+        return new WalkingkookaLanguageTagFilter(
+            root,
+            String.join(String.valueOf(TOKEN_SEPARATOR), normalized),
+            wildcard ?
+                WILDCARD + exclusions :
+                filter
+        );
+    }
+
+    /**
+     * Upper cases using {@link Character#toUpperCase(char)} like the trie, so the result does not depend on the default locale.
+     */
+    private static String upperCase(final String token) {
+        final int length = token.length();
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = Character.toUpperCase(token.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    private final static char TOKEN_SEPARATOR = ',';
+
+    private final static String EXCLUDE = "!";
+
+    private final static String WILDCARD = "*";
+
+    private final static int INCLUDE_EXACT = 1;
+    private final static int INCLUDE_PREFIX = 2;
+    private final static int EXCLUDE_EXACT = 4;
+    private final static int EXCLUDE_PREFIX = 8;
+
+    private WalkingkookaLanguageTagFilter(final Node root,
+                                          final String normalized,
+                                          final String toString) {
+        super();
+        this.root = root;
+        this.normalized = normalized;
+        this.toString = toString;
+    }
+
+    @Override
+    public boolean test(final String languageTag) {
+        final int length = languageTag.length();
+
+        Node node = this.root;
+        boolean included = false;
+
+        for (int i = 0; i < length; i++) {
+            final int flags = node.flags;
+            if (0 != (flags & EXCLUDE_PREFIX)) {
+                return false;
+            }
+            included |= 0 != (flags & INCLUDE_PREFIX);
+
+            node = node.child(Character.toUpperCase(languageTag.charAt(i)));
+            if (null == node) {
+                return included;
+            }
+        }
+
+        final int flags = node.flags;
+        return 0 == (flags & (EXCLUDE_EXACT | EXCLUDE_PREFIX)) &&
+            (included || 0 != (flags & (INCLUDE_EXACT | INCLUDE_PREFIX)));
+    }
+
+    private final Node root;
+
+    /**
+     * The non empty tokens upper cased, sorted and without duplicates, so filters that differ only in case, order or
+     * repeated tokens have the same normalized form.
+     */
+    String normalized() {
+        return this.normalized;
+    }
+
+    private final String normalized;
+
+    @Override
+    public String toString() {
+        return this.toString;
+    }
+
+    private final String toString;
+
+    /**
+     * A single node in the trie, children are kept in parallel arrays, which are tiny as language tags only contain
+     * letters, digits and dashes.
+     */
+    private final static class Node {
+
+        Node() {
+            super();
+        }
+
+        void add(final String pattern,
+                 final int length,
+                 final int flags) {
+            Node node = this;
+            for (int i = 0; i < length; i++) {
+                node = node.getOrCreate(Character.toUpperCase(pattern.charAt(i)));
+            }
+            node.flags |= flags;
+        }
+
+        private Node getOrCreate(final char c) {
+            Node child = this.child(c);
+            if (null == child) {
+                final int count = this.chars.length;
+
+                final char[] chars = new char[count + 1];
+                System.arraycopy(this.chars, 0, chars, 0, count);
+                chars[count] = c;
+
+                final Node[] children = new Node[count + 1];
+                System.arraycopy(this.children, 0, children, 0, count);
+                child = new Node();
+                children[count] = child;
+
+                this.chars = chars;
+                this.children = children;
+            }
+            return child;
+        }
+
+        Node child(final char c) {
+            final char[] chars = this.chars;
+            final int count = chars.length;
+
+            for (int i = 0; i < count; i++) {
+                if (c == chars[i]) {
+                    return this.children[i];
+                }
+            }
+            return null;
+        }
+
+        private char[] chars = new char[0];
+        private Node[] children = new Node[0];
+
+        int flags;
+    }
+}
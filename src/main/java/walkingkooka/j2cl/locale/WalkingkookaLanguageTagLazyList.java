@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * An immutable {@link java.util.List} returned by {@link WalkingkookaLanguageTag#decodeLazy(java.io.DataInput)} holding
+ * a decoder for the already read entries, with each {@link WalkingkookaLanguageTag} decoded on its first get and then remembered.
+ * Concurrent first gets may both decode, which is harmless as both return an equal interned tag.
+ */
+final class WalkingkookaLanguageTagLazyList extends AbstractList<WalkingkookaLanguageTag> implements RandomAccess {
+
+    static WalkingkookaLanguageTagLazyList with(final int size,
+                                                final IntFunction<WalkingkookaLanguageTag> decoder) {
+        return new WalkingkookaLanguageTagLazyList(size, decoder);
+    }
+
+    private WalkingkookaLanguageTagLazyList(final int size,
+                                            final IntFunction<WalkingkookaLanguageTag> decoder) {
+        super();
+        this.decoder = decoder;
+        this.decoded = new WalkingkookaLanguageTag[size];
+    }
+
+    @Override
+    public WalkingkookaLanguageTag get(final int index) {
+        WalkingkookaLanguageTag decoded = this.decoded[index];
+        if (null == decoded) {
+            decoded = this.decoder.apply(index);
+            this.decoded[index] = decoded;
+        }
+        return decoded;
+    }
+
+    @Override
+    public int size() {
+        return this.decoded.length;
+    }
+
+    private final IntFunction<WalkingkookaLanguageTag> decoder;
+
+    private final WalkingkookaLanguageTag[] decoded;
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import walkingkooka.collect.map.Maps;
+
+import java.util.Map;
+
+/**
+ * A bounded pool of canonical values, that may be read and added to from any thread without locking. The values are
+ * held in a single {@link Maps#concurrent()} so filling the pool is linear. The size check is not atomic with the
+ * addition, so threads racing to add the last values may leave the pool a few values over its maximum.
+ */
+final class WalkingkookaLanguageTagPool<K, V> {
+
+    static <K, V> WalkingkookaLanguageTagPool<K, V> with(final int max) {
+        return new WalkingkookaLanguageTagPool<>(max);
+    }
+
+    private WalkingkookaLanguageTagPool(final int max) {
+        super();
+        this.max = max;
+    }
+
+    /**
+     * Returns the value for the key or null.
+     */
+    V get(final K key) {
+        return this.values.get(key);
+    }
+
+    /**
+     * Adds the value if the key is absent and the pool is not full, returning the value now held or null when full.
+     */
+    V putIfAbsent(final K key,
+                  final V value) {
+        final Map<K, V> values = this.values;
+
+        V current = values.get(key);
+        if (null == current && values.size() < this.max) {
+            current = values.putIfAbsent(key, value);
+            if (null == current) {
+                current = value;
+            }
+        }
+        return current;
+    }
+
+    private final int max;
+
+    private final Map<K, V> values = Maps.concurrent();
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import javaemul.internal.annotations.GwtIncompatible;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * An immutable {@link java.util.Set} of language tags backed by a sorted array, returned and shared by
+ * {@link WalkingkookaLanguageTag#all(String)}. Iteration is in sorted order and contains uses a binary search.
+ */
+@GwtIncompatible
+final class WalkingkookaLanguageTagSortedArraySet extends AbstractSet<String> {
+
+    /**
+     * The array must be sorted and without duplicates, and must not be modified afterwards.
+     */
+    static WalkingkookaLanguageTagSortedArraySet with(final String[] sorted) {
+        return new WalkingkookaLanguageTagSortedArraySet(sorted);
+    }
+
+    private WalkingkookaLanguageTagSortedArraySet(final String[] sorted) {
+        super();
+        this.sorted = sorted;
+    }
+
+    @Override
+    public boolean contains(final Object other) {
+        return other instanceof String &&
+            Arrays.binarySearch(this.sorted, other) >= 0;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return Arrays.asList(this.sorted)
+            .iterator(); // asList iterator does not support remove
+    }
+
+    @Override
+    public int size() {
+        return this.sorted.length;
+    }
+
+    private final String[] sorted;
+}
@@ -17,10 +17,14 @@
 
 package walkingkooka.j2cl.locale.annotationprocessor;
 
+import walkingkooka.NeverError;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
 import walkingkooka.collect.set.Sets;
 import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.CompressedChars;
 import walkingkooka.j2cl.locale.LocaleAware;
-import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.j2cl.locale.StringTableDataInput;
 import walkingkooka.reflect.ClassName;
 import walkingkooka.reflect.PackageName;
 import walkingkooka.text.CharSequences;
@@ -40,6 +44,7 @@ import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.Elements;
 import javax.tools.Diagnostic;
 import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
 import javax.tools.StandardLocation;
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
@@ -47,9 +52,14 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -87,12 +97,17 @@ public abstract class LocaleAwareAnnotationProcessor extends AbstractProcessor {
         final Map<String, String> options = environment.getOptions();
         verifyRequiredOptions(
             options,
-            this.getSupportedOptions()
+            this.requiredOptions()
         );
 
         this.arguments = options;
         this.localeFilter = options.get(LOCALE_ANNOTATION_PROCESSOR_OPTION);
         this.logging = options.get(LOGGING_ANNOTATION_PROCESSOR_OPTION);
+        this.compressData = options.get(COMPRESS_DATA_ANNOTATION_PROCESSOR_OPTION);
+        this.stringTable = options.get(STRING_TABLE_ANNOTATION_PROCESSOR_OPTION);
+        this.cacheDirectory = options.get(CACHE_DIRECTORY_ANNOTATION_PROCESSOR_OPTION);
+        this.metrics = options.get(METRICS_ANNOTATION_PROCESSOR_OPTION);
+        this.dataBudget = options.get(DATA_BUDGET_ANNOTATION_PROCESSOR_OPTION);
 
         this.messager = environment.getMessager();
     }
@@ -128,14 +143,17 @@ public abstract class LocaleAwareAnnotationProcessor extends AbstractProcessor {
                 .value()
         );
 
-        // assume null means generated source does not exist...
-        if (null == exists) {
+        // assume null means generated source does not exist, a failure is reported once and not retried in later rounds
+        if (null == exists && false == this.processed) {
+            this.processed = true;
             this.process0();
         }
 
         return false; // whether or not the set of annotation types are claimed by this processor
     }
 
+    private boolean processed;
+
     private Elements elements;
 
     public final static String ANNOTATION_PROCESSOR_LOCALES_FILTER = "$FILTERED_LOCALES";
@@ -148,6 +166,13 @@ public abstract class LocaleAwareAnnotationProcessor extends AbstractProcessor {
 
     public final static String DATA = "$DATA";
 
+    /**
+     * An optional placeholder replaced with the fully qualified name of a static method that accepts the DATA and returns
+     * a {@link java.io.DataInput}, for example <code>$DATA_INPUT(DATA)</code>. It is required when the
+     * {@link #STRING_TABLE_ANNOTATION_PROCESSOR_OPTION} is true.
+     */
+    public final static String DATA_INPUT = "$DATA_INPUT";
+
     /**
      * Read the selected locales from an annotation processor argument, and generate replacements for various placeholders
      * in the template.
@@ -155,78 +180,313 @@ public abstract class LocaleAwareAnnotationProcessor extends AbstractProcessor {
     private void process0() {
         try {
             final Logging logging = this.logging();
+            final boolean stringTable = this.stringTable();
+
+            final LocaleAwareAnnotationProcessorTemplate template = this.template();
+            if (stringTable && false == template.has(DATA_INPUT)) {
+                throw new IllegalStateException(
+                    "Unable to find " +
+                        CharSequences.quoteAndEscape(DATA_INPUT) +
+                        " in " +
+                        CharSequences.quoteAndEscape(template.toString()) +
+                        " required by " +
+                        CharSequences.quote(STRING_TABLE_ANNOTATION_PROCESSOR_OPTION)
+                );
+            }
 
-            final String localeFilter = this.localeFilter();
-            final Set<String> selectedLocales = WalkingkookaLanguageTag.all(localeFilter);
-            final Optional<String> defaultValue = this.defaultValue(
-                selectedLocales,
-                this.arguments::get
-            );
+            final LocaleAwareAnnotationProcessorMetrics metrics = LocaleAwareAnnotationProcessorMetrics.empty();
+            final String summary;
 
-            final String template = this.template();
+            final Optional<LocaleAwareAnnotationProcessorCache> cache = this.cache();
+            if (cache.isPresent()) {
+                final LocaleAwareAnnotationProcessorCache directory = cache.get();
 
-            String merged = replace(
-                template,
-                ANNOTATION_PROCESSOR_LOCALES_FILTER,
-                CharSequences.quoteAndEscape(localeFilter)
-            );
+                long start = System.nanoTime();
+                final String key = LocaleAwareAnnotationProcessorCache.key(
+                    this.getClass(),
+                    template.text(),
+                    this.cacheOptions(),
+                    this.outputDirectories()
+                );
+                final Optional<LocaleAwareAnnotationProcessorCacheEntry> hit = directory.get(key);
+                metrics.end(LocaleAwareAnnotationProcessorMetrics.CACHE, start);
+
+                final LocaleAwareAnnotationProcessorCacheEntry entry;
+                if (hit.isPresent()) {
+                    entry = hit.get();
+                    summary = entry.summary + ", cache hit " + key;
+                } else {
+                    final Map<String, LocaleAwareAnnotationProcessorTemplateValue> values = Maps.ordered();
+                    final StringBuilder comments = new StringBuilder();
+                    final String generated = this.generateSource(
+                        logging,
+                        stringTable,
+                        template,
+                        comments,
+                        true, // cached
+                        values,
+                        metrics
+                    );
+
+                    // the cache entry needs the source text, the non cached branch below renders directly into the Filer
+                    final StringWriter source = new StringWriter();
+                    render(
+                        template,
+                        values,
+                        source,
+                        metrics
+                    );
+                    entry = LocaleAwareAnnotationProcessorCacheEntry.with(
+                        source.toString(),
+                        comments.toString(),
+                        generated
+                    );
+
+                    start = System.nanoTime();
+                    try {
+                        directory.put(key, entry);
+                    } catch (final IOException cause) {
+                        // the generated source is still good, only later builds miss the cache
+                        this.warning("Unable to write cache " + CharSequences.quoteAndEscape(directory.toString()) + ", " + cause.getMessage());
+                    }
+                    metrics.end(LocaleAwareAnnotationProcessorMetrics.CACHE, start);
+
+                    summary = generated + ", cache miss " + key;
+                }
+
+                this.writeGeneratedTypeSource(
+                    LocaleAwareAnnotationProcessorTemplateValue.text(entry.source),
+                    metrics
+                );
+                this.writeLoggingTextFile(logging, entry.logging, metrics);
+            } else {
+                final Map<String, LocaleAwareAnnotationProcessorTemplateValue> values = Maps.ordered();
+                final StringBuilder comments = new StringBuilder();
+                summary = this.generateSource(
+                    logging,
+                    stringTable,
+                    template,
+                    comments,
+                    false, // cached
+                    values,
+                    metrics
+                );
 
-            merged = replace(
-                merged,
-                SELECTED_LOCALES,
+                this.writeGeneratedTypeSource(
+                    (writer) -> render(
+                        template,
+                        values,
+                        writer,
+                        metrics
+                    ),
+                    metrics
+                );
+            }
+
+            this.printSummary(summary + ", " + metrics.summary());
+
+            if (this.metrics()) {
+                this.writeMetrics(metrics);
+            }
+        } catch (final Exception cause) {
+            cause.printStackTrace();
+            this.error(cause.getMessage());
+        }
+    }
+
+    /**
+     * Writes the logging text file recording the time taken as {@link LocaleAwareAnnotationProcessorMetrics#WRITE}.
+     */
+    private void writeLoggingTextFile(final Logging logging,
+                                      final CharSequence comments,
+                                      final LocaleAwareAnnotationProcessorMetrics metrics) throws IOException {
+        final long start = System.nanoTime();
+        logging.writeLoggingTextFile(comments, this);
+        metrics.end(LocaleAwareAnnotationProcessorMetrics.WRITE, start);
+    }
+
+    /**
+     * Calls {@link #generate(String, Set, Function, DataOutput, IndentingPrinter)} and fills the template values
+     * including the DATA, returning the summary. Every check happens here, before anything is rendered.
+     */
+    private String generateSource(final Logging logging,
+                                  final boolean stringTable,
+                                  final LocaleAwareAnnotationProcessorTemplate template,
+                                  final StringBuilder comments,
+                                  final boolean cached,
+                                  final Map<String, LocaleAwareAnnotationProcessorTemplateValue> values,
+                                  final LocaleAwareAnnotationProcessorMetrics metrics) throws Exception {
+        final boolean compressData = this.compressData();
+
+        long start = System.nanoTime();
+        final String localeFilter = this.localeFilter();
+        final LocaleAwareAnnotationProcessorContext context = LocaleAwareAnnotationProcessorContext.get(
+            this.processingEnv,
+            localeFilter
+        );
+        this.context = context;
+
+        final Set<String> selectedLocales = context.languageTags;
+        final Optional<String> defaultValue = this.defaultValue(
+            selectedLocales,
+            this.arguments::get
+        );
+        metrics.end(LocaleAwareAnnotationProcessorMetrics.LOCALES, start);
+
+        values.put(
+            ANNOTATION_PROCESSOR_LOCALES_FILTER,
+            LocaleAwareAnnotationProcessorTemplateValue.text(
+                CharSequences.quoteAndEscape(localeFilter)
+            )
+        );
+        values.put(
+            SELECTED_LOCALES,
+            LocaleAwareAnnotationProcessorTemplateValue.text(
                 CharSequences.quoteAndEscape(
-                    selectedLocales.stream()
-                        .collect(
-                            Collectors.joining(",")
-                        )
+                    String.join(",", selectedLocales)
                 )
-            );
+            )
+        );
 
-            if (defaultValue.isPresent()) {
-                merged = replace(
-                    merged,
-                    DEFAULT,
+        if (defaultValue.isPresent()) {
+            values.put(
+                DEFAULT,
+                LocaleAwareAnnotationProcessorTemplateValue.text(
                     CharSequences.quoteAndEscape(
                         defaultValue.get()
                     )
-                );
-            }
+                )
+            );
+        }
 
-            final String data;
-            final StringBuilder comments = new StringBuilder();
+        final String data;
+        final String summary;
 
-            try (final IndentingPrinter printer = logging.loggingDestination(comments, this)) {
-                final StringBuilder dataStringBuilder = new StringBuilder();
+        try (final IndentingPrinter printer = logging.loggingDestination(comments, cached, this)) {
+            final LocaleSectionDataOutput dataOutput = LocaleSectionDataOutput.with(stringTable);
 
-                final String summary = this.generate(
-                    localeFilter,
-                    selectedLocales,
-                    this.arguments::get,
-                    StringDataInputDataOutput.output(dataStringBuilder::append),
-                    printer
-                );
-                printer.flush();
+            start = System.nanoTime();
+            final String generated = this.generate(
+                localeFilter,
+                selectedLocales,
+                this.arguments::get,
+                dataOutput,
+                printer
+            );
+            printer.flush();
+            metrics.end(LocaleAwareAnnotationProcessorMetrics.GENERATE, start);
+
+            start = System.nanoTime();
+            final String raw = dataOutput.data();
+            data = compressData ?
+                CompressedChars.compress(raw) :
+                raw;
+            final int sectionCount = dataOutput.sectionCount();
+            final int deduplicatedChars = dataOutput.deduplicatedChars();
+            summary = generated +
+                    ", " +
+                    rawAndCompressedSize(raw) +
+                    (sectionCount > 0 ?
+                        ", sections: " + sectionCount :
+                        "") +
+                    (deduplicatedChars > 0 ?
+                        ", distinct sections: " + dataOutput.distinctSectionCount() + ", deduplicated: " + deduplicatedChars + " char(s)" :
+                        "") +
+                    (compressData ?
+                        ", compressed: " + data.length() + " char(s)" :
+                        "");
+
+            final Optional<LocaleAwareAnnotationProcessorDataBudget> dataBudget = this.dataBudget();
+            if (dataBudget.isPresent()) {
+                dataBudget.get()
+                    .check(
+                        data,
+                        dataOutput.sectionSizes(),
+                        dataOutput.sectionReferences()
+                    );
+            }
+            metrics.end(LocaleAwareAnnotationProcessorMetrics.DATA, start);
 
-                data = dataStringBuilder.toString();
-                this.printSummary(summary + ", " + rawAndCompressedSize(data));
+            metrics.value(DATA_METRIC, raw.length());
+            metrics.value(DEDUPLICATED_METRIC, deduplicatedChars);
+            if (compressData) {
+                metrics.value(COMPRESSED_METRIC, data.length());
             }
+        }
+
+        values.put(
+            DATA_COMMENT,
+            LocaleAwareAnnotationProcessorTemplateValue.text(
+                logging.dataComment(comments)
+            )
+        );
 
-            merged = logging.replaceTemplatePlaceholder(
-                merged,
-                comments
+        if (template.has(DATA_INPUT)) {
+            values.put(
+                DATA_INPUT,
+                LocaleAwareAnnotationProcessorTemplateValue.text(
+                    stringTable ?
+                        STRING_TABLE_DATA_INPUT :
+                        DATA_INPUT_DEFAULT
+                )
             );
+        }
+
+        values.put(
+            DATA,
+            compressData ?
+                (writer) -> {
+                    writer.write(DECOMPRESS);
+                    stringDeclaration(data, writer, metrics);
+                    writer.write(')');
+                } :
+                (writer) -> stringDeclaration(data, writer, metrics)
+        );
 
-            merged = replace(
-                merged,
-                DATA,
-                stringDeclaration(data, 256 * 64 - 1)
-            ); // 16k chars UTF8 encoded cant overflow 64k chars
+        return summary;
+    }
 
-            this.writeGeneratedTypeSource(merged);
-        } catch (final Exception cause) {
-            cause.printStackTrace();
-            this.error(cause.getMessage());
-        }
+    /**
+     * Renders the template with the given values, recording the time taken, less any escape and write time, as
+     * {@link LocaleAwareAnnotationProcessorMetrics#MERGE}.
+     */
+    private static void render(final LocaleAwareAnnotationProcessorTemplate template,
+                               final Map<String, LocaleAwareAnnotationProcessorTemplateValue> values,
+                               final Writer source,
+                               final LocaleAwareAnnotationProcessorMetrics metrics) throws IOException {
+        final long start = System.nanoTime();
+        final long write = metrics.nanos(LocaleAwareAnnotationProcessorMetrics.WRITE);
+        final long escape = metrics.nanos(LocaleAwareAnnotationProcessorMetrics.ESCAPE);
+
+        template.render(
+            values,
+            source
+        );
+
+        metrics.add(
+            LocaleAwareAnnotationProcessorMetrics.MERGE,
+            System.nanoTime() - start -
+                (metrics.nanos(LocaleAwareAnnotationProcessorMetrics.WRITE) - write) -
+                (metrics.nanos(LocaleAwareAnnotationProcessorMetrics.ESCAPE) - escape)
+        );
+    }
+
+    /**
+     * Writes the DATA string declaration recording the time taken, less any write time, as {@link LocaleAwareAnnotationProcessorMetrics#ESCAPE}.
+     */
+    private static void stringDeclaration(final String data,
+                                          final Writer writer,
+                                          final LocaleAwareAnnotationProcessorMetrics metrics) throws IOException {
+        final long start = System.nanoTime();
+        final long write = metrics.nanos(LocaleAwareAnnotationProcessorMetrics.WRITE);
+
+        stringDeclaration(data, 256 * 64 - 1, writer); // 16k chars UTF8 encoded cant overflow 64k chars
+
+        metrics.add(
+            LocaleAwareAnnotationProcessorMetrics.ESCAPE,
+            System.nanoTime() - start -
+                (metrics.nanos(LocaleAwareAnnotationProcessorMetrics.WRITE) - write)
+        );
     }
 
     public static IndentingPrinter comments(final Printer printer) {
@@ -235,6 +495,16 @@ public abstract class LocaleAwareAnnotationProcessor extends AbstractProcessor {
         ).indenting(INDENTATION);
     }
 
+    /**
+     * Adds the logging indentation to the given {@link Printer}.
+     */
+    static IndentingPrinter indenting(final Printer printer) {
+        return printer.indenting(INDENTATION);
+    }
+
+    /**
+     * Creates a resource with the same name as the generated class + ".DATA.log" that receives the logging as it is written.
+     */
     final IndentingPrinter createLoggingTextFile() throws IOException {
         final ClassName type = this.generatedClassName();
 
@@ -250,6 +520,23 @@ public abstract class LocaleAwareAnnotationProcessor extends AbstractProcessor {
         ).indenting(INDENTATION);
     }
 
+    /**
+     * Writes the comments to a resource with the same name as the generated class + ".DATA.log"
+     */
+    final void writeLoggingTextFile(final CharSequence comments) throws IOException {
+        final ClassName type = this.generatedClassName();
+
+        try (final Writer writer = this.filer.createResource(
+            StandardLocation.CLASS_OUTPUT,
+            type.parentPackage()
+                .value(),
+            type.nameWithoutPackage() + ".DATA.log"
+        ).openWriter()) {
+            writer.append(comments);
+            writer.flush();
+        }
+    }
+
     private final static Indentation INDENTATION = Indentation.SPACES2;
 
     // adds slash slash comments to the beginning of every line.
@@ -260,80 +547,91 @@ public abstract class LocaleAwareAnnotationProcessor extends AbstractProcessor {
     }
 
     static CharSequence stringDeclaration(final String data, final int max) {
-        return data.length() < max ?
-            CharSequences.quoteAndEscape(data) :
-            stringBuilderSplit(
-                CharSequences.escape(data)
-                    .toString(),
-                max
-            );
+        final StringBuilder declaration = new StringBuilder();
+        try {
+            stringDeclaration(data, max, declaration);
+        } catch (final IOException never) {
+            throw new NeverError("StringBuilder append failed " + never.getMessage());
+        }
+        return declaration;
     }
 
-    private static CharSequence stringBuilderSplit(final String data, final int max) {
-        final StringBuilder statements = new StringBuilder();
-        statements.append("new java.lang.StringBuilder()");
-
-        String left = data;
+    /**
+     * Writes the data as a java string literal, or if too long as a {@link StringBuilder} expression appending literals
+     * with at most max - 1 escaped chars. Escaping and splitting happen in a single forward pass without copying the
+     * remaining data, and an escape sequence is never split across two literals.
+     */
+    static void stringDeclaration(final String data,
+                                  final int max,
+                                  final Appendable output) throws IOException {
+        if (data.length() < max) {
+            output.append(CharSequences.quoteAndEscape(data));
+        } else {
+            output.append("new java.lang.StringBuilder()");
+
+            final StringBuilder literal = new StringBuilder(max);
+            final int length = data.length();
+
+            for (int i = 0; i < length; i++) {
+                final char c = data.charAt(i);
+                final CharSequence escaped = escape(c);
+                final int escapedLength = null == escaped ?
+                    1 :
+                    escaped.length();
+
+                if (literal.length() + escapedLength >= max) {
+                    stringBuilderAppend(literal, output);
+                    literal.setLength(0);
+                }
 
-        do {
-            if (left.length() < max) {
-                statements.append(".append(")
-                    .append(CharSequences.quote(left))
-                    .append(')');
-                break;
+                if (null == escaped) {
+                    literal.append(c);
+                } else {
+                    literal.append(escaped);
+                }
             }
 
-            // -10 just in case backslash is a part of a unicode sequence.
-            int end = max - 1;
-            final int slashIndex = left.lastIndexOf('\\', max - 10);
-            if (-1 != slashIndex) {
-                end = slashIndex - 1;
-                do {
-                    if (left.charAt(end) != '\\') {
-                        end--;
-                        break;
-                    }
-                    end--;
-                    if (0 == end) {
-                        end = max / 2 * 2;
-                        break;
-                    }
-                } while (true);
+            if (literal.length() > 0) {
+                stringBuilderAppend(literal, output);
             }
 
-            statements.append(".append(")
-                .append(CharSequences.quote(left.substring(0, end)))
-                .append(')');
-            left = left.substring(end);
-        } while (false == left.isEmpty());
+            output.append(".toString()");
+        }
+    }
 
-        statements.append(".toString()");
-        return statements;
+    /**
+     * Returns null if the char does not need to be escaped within a java string literal, otherwise its escape sequence.
+     */
+    private static CharSequence escape(final char c) {
+        return c < ESCAPED.length ?
+            ESCAPED[c] :
+            escape0(c);
     }
 
-    private static String replace(final String template,
-                                  final String placeholder,
-                                  final CharSequence value) {
-        return replace(
-            template,
-            placeholder,
-            value.toString()
-        );
+    private static String escape0(final char c) {
+        return c < ' ' || c > '~' || '\\' == c || '"' == c || '\'' == c ?
+            CharSequences.escape(String.valueOf(c))
+                .toString() :
+            null;
     }
 
-    static String replace(final String template,
-                          final String placeholder,
-                          final String value) {
-        final String after = template.replace(placeholder, value);
-        if (template.equals(after)) {
-            throw new IllegalStateException(
-                "Unable to find " +
-                    CharSequences.quoteAndEscape(placeholder) +
-                    " in " +
-                    CharSequences.quoteAndEscape(template)
-            );
+    /**
+     * Escape sequences for the chars of a single byte, which are the most common in DATA, other chars are escaped when
+     * they are written.
+     */
+    private final static String[] ESCAPED = new String[256];
+
+    static {
+        for (int c = 0; c < ESCAPED.length; c++) {
+            ESCAPED[c] = escape0((char) c);
         }
-        return after;
+    }
+
+    private static void stringBuilderAppend(final CharSequence escaped,
+                                            final Appendable output) throws IOException {
+        output.append(".append(\"")
+            .append(escaped)
+            .append("\")");
     }
 
     /**
@@ -344,7 +642,19 @@ public abstract class LocaleAwareAnnotationProcessor extends AbstractProcessor {
      */
     private static String rawAndCompressedSize(final String data) throws IOException {
         final byte[] utf = data.getBytes(Charset.defaultCharset());
+        return "data: " + data.length() + " char(s), utf-8: " + utf.length + " byte(s), gzipped " + gzippedSize(utf) + " byte(s)";
+    }
+
+    /**
+     * Returns the number of bytes after gzipping the data.
+     */
+    static int gzippedSize(final String data) throws IOException {
+        return gzippedSize(
+            data.getBytes(Charset.defaultCharset())
+        );
+    }
 
+    private static int gzippedSize(final byte[] utf) throws IOException {
         try (final ByteArrayOutputStream bytes = new ByteArrayOutputStream()) {
             try (final GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
                 gzip.write(utf);
@@ -352,7 +662,7 @@ public abstract class LocaleAwareAnnotationProcessor extends AbstractProcessor {
             }
             bytes.flush();
 
-            return "data: " + data.length() + " char(s), utf-8: " + utf.length + " byte(s), gzipped " + bytes.toByteArray().length + " byte(s)";
+            return bytes.size();
         }
     }
 
@@ -376,6 +686,19 @@ public abstract class LocaleAwareAnnotationProcessor extends AbstractProcessor {
 
     @Override
     public final Set<String> getSupportedOptions() {
+        final Set<String> arguments = this.requiredOptions();
+        arguments.add(COMPRESS_DATA_ANNOTATION_PROCESSOR_OPTION);
+        arguments.add(STRING_TABLE_ANNOTATION_PROCESSOR_OPTION);
+        arguments.add(CACHE_DIRECTORY_ANNOTATION_PROCESSOR_OPTION);
+        arguments.add(METRICS_ANNOTATION_PROCESSOR_OPTION);
+        arguments.add(DATA_BUDGET_ANNOTATION_PROCESSOR_OPTION);
+        return arguments;
+    }
+
+    /**
+     * All options that must be present, optional options such as {@link #COMPRESS_DATA_ANNOTATION_PROCESSOR_OPTION} are not included.
+     */
+    private Set<String> requiredOptions() {
         final Set<String> arguments = Sets.ordered();
         arguments.add(LOCALE_ANNOTATION_PROCESSOR_OPTION);
         arguments.add(LOGGING_ANNOTATION_PROCESSOR_OPTION);
@@ -456,11 +779,254 @@ public abstract class LocaleAwareAnnotationProcessor extends AbstractProcessor {
      */
     private final static String LOGGING_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.locale.Logging";
 
+    // compress data....................................................................................................
+
+    /**
+     * Returns true if the DATA should be compressed, defaulting to false when the option is absent.
+     */
+    private boolean compressData() {
+        return booleanOption(
+            COMPRESS_DATA_ANNOTATION_PROCESSOR_OPTION,
+            this.compressData
+        );
+    }
+
+    /**
+     * Parses an optional true/false annotation processor option, defaulting to false when absent.
+     */
+    private static boolean booleanOption(final String option,
+                                         final String value) {
+        final boolean result;
+
+        if (CharSequences.isNullOrEmpty(value)) {
+            result = false;
+        } else {
+            switch (value) {
+                case "true":
+                    result = true;
+                    break;
+                case "false":
+                    result = false;
+                    break;
+                default:
+                    throw new IllegalStateException(
+                        "Bad annotation processor argument " +
+                            CharSequences.quote(option) +
+                            "=" +
+                            CharSequences.quoteIfChars(value) +
+                            ", expected true or false"
+                    );
+            }
+        }
+
+        return result;
+    }
+
+    private String compressData;
+
+    /**
+     * The optional annotation processor option that when true compresses the DATA using {@link CompressedChars}.
+     */
+    private final static String COMPRESS_DATA_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.locale.CompressData";
+
+    /**
+     * The expression that wraps the compressed DATA literal.
+     */
+    private final static String DECOMPRESS = CompressedChars.class.getName() + ".decompress(";
+
+    // string table.....................................................................................................
+
+    /**
+     * Returns true if the DATA should be written with a {@link StringTableDataOutput}, defaulting to false when the option is absent.
+     */
+    private boolean stringTable() {
+        return booleanOption(
+            STRING_TABLE_ANNOTATION_PROCESSOR_OPTION,
+            this.stringTable
+        );
+    }
+
+    private String stringTable;
+
+    /**
+     * The optional annotation processor option that when true writes repeated strings in the DATA once using {@link StringTableDataOutput}.
+     */
+    private final static String STRING_TABLE_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.locale.StringTable";
+
+    /**
+     * The {@link #DATA_INPUT} replacement when the string table is off.
+     */
+    private final static String DATA_INPUT_DEFAULT = StringDataInputDataOutput.class.getName() + ".input";
+
+    /**
+     * The {@link #DATA_INPUT} replacement when the string table is on.
+     */
+    private final static String STRING_TABLE_DATA_INPUT = StringTableDataInput.class.getName() + ".input";
+
+    // cache............................................................................................................
+
+    /**
+     * Returns the {@link LocaleAwareAnnotationProcessorCache} if the cache directory option is present.
+     */
+    private Optional<LocaleAwareAnnotationProcessorCache> cache() {
+        final String cacheDirectory = this.cacheDirectory;
+
+        return CharSequences.isNullOrEmpty(cacheDirectory) ?
+            Optional.empty() :
+            Optional.of(
+                LocaleAwareAnnotationProcessorCache.with(
+                    Paths.get(cacheDirectory)
+                )
+            );
+    }
+
+    /**
+     * All supported options except those that do not change the generated source, such as the cache directory, so
+     * moving the cache does not change keys.
+     */
+    /**
+     * Returns the class and source output directories, which are excluded from the cache key as they change with every
+     * compile. Output locations that are not local directories are ignored.
+     */
+    private List<Path> outputDirectories() {
+        final List<Path> directories = Lists.array();
+
+        for (final StandardLocation location : new StandardLocation[]{StandardLocation.CLASS_OUTPUT, StandardLocation.SOURCE_OUTPUT}) {
+            try {
+                // getResource for an output location does not create the file
+                final Path file = Paths.get(
+                    this.filer.getResource(location, "", "cache")
+                        .toUri()
+                );
+                directories.add(file.getParent());
+            } catch (final IOException | IllegalArgumentException | UnsupportedOperationException ignore) {
+                // not a local directory
+            }
+        }
+
+        return directories;
+    }
+
+    private Map<String, String> cacheOptions() {
+        final Map<String, String> options = Maps.ordered();
+
+        for (final String option : this.getSupportedOptions()) {
+            if (false == CACHE_DIRECTORY_ANNOTATION_PROCESSOR_OPTION.equals(option) &&
+                false == METRICS_ANNOTATION_PROCESSOR_OPTION.equals(option)) {
+                options.put(
+                    option,
+                    this.arguments.get(option)
+                );
+            }
+        }
+
+        return options;
+    }
+
+    private String cacheDirectory;
+
+    /**
+     * The optional annotation processor option holding the directory of previously generated sources.
+     */
+    private final static String CACHE_DIRECTORY_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.locale.CacheDirectory";
+
+    // context..........................................................................................................
+
+    /**
+     * Returns the read only {@link Locale locales} for the language tags given to {@link #defaultValue(Set, Function)}
+     * and {@link #generate(String, Set, Function, DataOutput, IndentingPrinter)}. They are shared with all other
+     * processors with the same locale filter in this javac invocation, and should be used instead of
+     * {@link LocaleAwareAnnotationProcessorTool#toLocales(Set)}.
+     */
+    protected final Set<Locale> selectedLocales() {
+        final LocaleAwareAnnotationProcessorContext context = this.context;
+        if (null == context) {
+            throw new IllegalStateException("Selected locales only available during generate");
+        }
+        return context.locales;
+    }
+
+    private LocaleAwareAnnotationProcessorContext context;
+
+    // data budget......................................................................................................
+
+    /**
+     * Returns the {@link LocaleAwareAnnotationProcessorDataBudget} if the data budget option is present.
+     */
+    private Optional<LocaleAwareAnnotationProcessorDataBudget> dataBudget() {
+        final String dataBudget = this.dataBudget;
+
+        return CharSequences.isNullOrEmpty(dataBudget) ?
+            Optional.empty() :
+            Optional.of(
+                LocaleAwareAnnotationProcessorDataBudget.parse(
+                    DATA_BUDGET_ANNOTATION_PROCESSOR_OPTION,
+                    dataBudget
+                )
+            );
+    }
+
+    private String dataBudget;
+
+    /**
+     * The optional annotation processor option holding the maximum DATA size in chars or gzipped bytes.
+     */
+    private final static String DATA_BUDGET_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.locale.DataBudget";
+
+    // metrics..........................................................................................................
+
+    /**
+     * Returns true if the metrics JSON resource should be written, defaulting to false when the option is absent.
+     */
+    private boolean metrics() {
+        return booleanOption(
+            METRICS_ANNOTATION_PROCESSOR_OPTION,
+            this.metrics
+        );
+    }
+
+    /**
+     * Writes the metrics to a resource with the same name as the generated class + ".metrics.json"
+     */
+    private void writeMetrics(final LocaleAwareAnnotationProcessorMetrics metrics) throws IOException {
+        final ClassName type = this.generatedClassName();
+
+        try (final Writer writer = this.filer.createResource(
+            StandardLocation.CLASS_OUTPUT,
+            type.parentPackage()
+                .value(),
+            type.nameWithoutPackage() + ".metrics.json"
+        ).openWriter()) {
+            metrics.writeJson(
+                this.getClass().getName(),
+                type.value(),
+                writer
+            );
+            writer.flush();
+        }
+    }
+
+    private String metrics;
+
+    /**
+     * The optional annotation processor option that when true writes the {@link LocaleAwareAnnotationProcessorMetrics} as JSON.
+     */
+    private final static String METRICS_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.locale.Metrics";
+
+    private final static String DATA_METRIC = "dataChars";
+
+    private final static String COMPRESSED_METRIC = "compressedChars";
+
+    private final static String DEDUPLICATED_METRIC = "deduplicatedChars";
+
+    private final static String SOURCE_METRIC = "sourceChars";
+
     // generate merge replacement.......................................................................................
 
     /**
      * This method is invoked with one or more language tags and should return something like a field or method that will appear in the template.
-     * It should return a summary that includes the items extracted.
+     * It should return a summary that includes the items extracted. The {@link DataOutput} is a {@link LocaleSectionDataOutput},
+     * see {@link #section(DataOutput, String)}.
      */
     protected abstract String generate(final String localeFilter,
                                        final Set<String> languageTags,
@@ -468,14 +1034,52 @@ public abstract class LocaleAwareAnnotationProcessor extends AbstractProcessor {
                                        final DataOutput data,
                                        final IndentingPrinter comments) throws Exception;
 
+    /**
+     * Starts the section for the given language tag, giving the DATA an index header so the runtime may use
+     * {@link walkingkooka.j2cl.locale.LocaleSectionIndex} to decode one locale without reading the others.
+     */
+    protected static void section(final DataOutput data,
+                                  final String languageTag) {
+        if (false == data instanceof LocaleSectionDataOutput) {
+            throw new IllegalArgumentException("DataOutput is not the one given to generate");
+        }
+        ((LocaleSectionDataOutput) data).section(languageTag);
+    }
+
     // template.........................................................................................................
 
     /**
-     * Reads the template that will be host the generated all() method.
+     * Returns the compiled template that will be host the generated all() method, reading and compiling it only once
+     * for each processor class.
+     */
+    private LocaleAwareAnnotationProcessorTemplate template() throws IOException {
+        final Class<?> type = this.getClass();
+
+        LocaleAwareAnnotationProcessorTemplate template = TEMPLATES.get(type);
+        if (null == template) {
+            final String templateResourceName = this.templateResourceName();
+            template = LocaleAwareAnnotationProcessorTemplate.compile(
+                this.templateText(templateResourceName),
+                templateResourceName
+            );
+
+            final LocaleAwareAnnotationProcessorTemplate previous = TEMPLATES.putIfAbsent(type, template);
+            if (null != previous) {
+                template = previous;
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Compiled templates for each processor class.
      */
-    private String template() throws IOException {
-        final String templateResourceName = this.templateResourceName();
+    private final static Map<Class<?>, LocaleAwareAnnotationProcessorTemplate> TEMPLATES = Maps.concurrent();
 
+    /**
+     * Reads the template text.
+     */
+    private String templateText(final String templateResourceName) throws IOException {
         try (final InputStream resource = this.getClass().getResourceAsStream(templateResourceName)) {
             if (null == resource) {
                 throw new IllegalStateException("Unable to find template " + CharSequences.quoteAndEscape(templateResourceName));
@@ -542,14 +1146,26 @@ public abstract class LocaleAwareAnnotationProcessor extends AbstractProcessor {
     }
 
     /**
-     * Writes the result of merging the template with the generated method source.
+     * Creates the generated source file and writes the source directly to it, only after generation and every check
+     * has succeeded. A failure while writing deletes the created file, so it never leaves a partial source file.
      */
-    private void writeGeneratedTypeSource(final String content) throws IOException {
-        final ClassName typeName = this.generatedClassName();
-
-        try (final Writer writer = this.filer.createSourceFile(typeName.value()).openWriter()) {
-            writer.write(content);
-            writer.flush();
+    private void writeGeneratedTypeSource(final LocaleAwareAnnotationProcessorTemplateValue source,
+                                          final LocaleAwareAnnotationProcessorMetrics metrics) throws IOException {
+        final long start = System.nanoTime();
+        final JavaFileObject file = this.filer.createSourceFile(
+            this.generatedClassName()
+                .value()
+        );
+        final Writer writer = file.openWriter();
+        metrics.end(LocaleAwareAnnotationProcessorMetrics.WRITE, start);
+
+        try (final LocaleAwareAnnotationProcessorMetricsWriter metricsWriter = metrics.writer(writer)) {
+            source.write(metricsWriter);
+            metricsWriter.flush();
+            metrics.value(SOURCE_METRIC, metricsWriter.count());
+        } catch (final IOException | RuntimeException cause) {
+            file.delete();
+            throw cause;
         }
     }
 
@@ -567,5 +1183,12 @@ public abstract class LocaleAwareAnnotationProcessor extends AbstractProcessor {
         );
     }
 
+    private void warning(final String message) {
+        this.messager.printMessage(
+            Diagnostic.Kind.WARNING,
+            message
+        );
+    }
+
     private Messager messager;
 }
@@ -0,0 +1,429 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.SortedSets;
+import walkingkooka.text.CharSequences;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A content addressed directory of generated sources. Each entry is keyed by a SHA-256 of everything that affects the
+ * output: the processor classes, the jars or directories they were loaded from, the template, the annotation processor
+ * options and the JDK, whose locale data changes between releases. An entry is three files, the generated source, the
+ * logging and the summary, and only the most recently used entries are kept.
+ */
+final class LocaleAwareAnnotationProcessorCache {
+
+    static LocaleAwareAnnotationProcessorCache with(final Path directory) {
+        Objects.requireNonNull(directory, "directory");
+
+        return new LocaleAwareAnnotationProcessorCache(directory);
+    }
+
+    private LocaleAwareAnnotationProcessorCache(final Path directory) {
+        super();
+        this.directory = directory;
+    }
+
+    /**
+     * Computes the key for the given inputs, including the jars or directories holding the processor classes, except
+     * for the output directories, which change with every compile. The digest of each code source is computed once for
+     * each {@link ClassLoader}, as the classes it loaded cannot change.
+     */
+    static String key(final Class<?> processor,
+                      final String template,
+                      final Map<String, String> options,
+                      final Collection<Path> outputDirectories) throws IOException {
+        final ClassLoader loader = processor.getClassLoader();
+
+        Map<Path, byte[]> digests;
+        synchronized (CODE_SOURCE_DIGESTS) {
+            digests = CODE_SOURCE_DIGESTS.get(loader);
+            if (null == digests) {
+                digests = Maps.concurrent();
+                CODE_SOURCE_DIGESTS.put(loader, digests);
+            }
+        }
+
+        final Map<Path, byte[]> loaderDigests = digests;
+        return key(
+            processor,
+            codeSources(processor, outputDirectories),
+            (codeSource) -> {
+                byte[] digest = loaderDigests.get(codeSource);
+                if (null == digest) {
+                    digest = codeSourceDigest(codeSource);
+                    loaderDigests.put(codeSource, digest);
+                }
+                return digest;
+            },
+            template,
+            options
+        );
+    }
+
+    /**
+     * The digest of each code source for each {@link ClassLoader}, released with the {@link ClassLoader}.
+     */
+    private final static Map<ClassLoader, Map<Path, byte[]>> CODE_SOURCE_DIGESTS = new WeakHashMap<>();
+
+    /**
+     * Returns the jars and directories holding the processor class and its super classes, excluding the given output
+     * directories and anything within them. Dependencies of the processor are not included.
+     */
+    static Set<Path> codeSources(final Class<?> processor,
+                                 final Collection<Path> outputDirectories) {
+        final Set<Path> codeSources = SortedSets.tree();
+
+        for (Class<?> type = processor; null != type && Object.class != type; type = type.getSuperclass()) {
+            final CodeSource codeSource = type.getProtectionDomain()
+                .getCodeSource();
+            if (null != codeSource) {
+                final Optional<Path> path = path(codeSource.getLocation());
+                if (path.isPresent() && false == isOutput(path.get(), outputDirectories)) {
+                    codeSources.add(path.get());
+                }
+            }
+        }
+
+        return codeSources;
+    }
+
+    private static Optional<Path> path(final URL url) {
+        Optional<Path> path = Optional.empty();
+
+        if (null != url && "file".equals(url.getProtocol())) {
+            try {
+                path = Optional.of(
+                    Paths.get(url.toURI())
+                        .toAbsolutePath()
+                        .normalize()
+                );
+            } catch (final URISyntaxException | IllegalArgumentException ignore) {
+                // not a local file, nothing to hash
+            }
+        }
+
+        return path;
+    }
+
+    private static boolean isOutput(final Path codeSource,
+                                    final Collection<Path> outputDirectories) {
+        boolean output = false;
+
+        for (final Path outputDirectory : outputDirectories) {
+            output = codeSource.startsWith(
+                outputDirectory.toAbsolutePath()
+                    .normalize()
+            );
+            if (output) {
+                break;
+            }
+        }
+
+        return output;
+    }
+
+    /**
+     * Computes the key for the given inputs, hashing the contents of each code source every time. Options are sorted so
+     * the key does not depend on their order.
+     */
+    static String key(final Class<?> processor,
+                      final Collection<Path> codeSources,
+                      final String template,
+                      final Map<String, String> options) throws IOException {
+        return key(
+            processor,
+            codeSources,
+            LocaleAwareAnnotationProcessorCache::codeSourceDigest,
+            template,
+            options
+        );
+    }
+
+    private static String key(final Class<?> processor,
+                              final Collection<Path> codeSources,
+                              final CodeSourceDigester digester,
+                              final String template,
+                              final Map<String, String> options) throws IOException {
+        final MessageDigest digest = sha256();
+
+        final Map<String, String> sorted = Maps.sorted();
+        sorted.putAll(options);
+
+        for (Class<?> type = processor; null != type && Object.class != type; type = type.getSuperclass()) {
+            update(type.getName(), digest);
+            digest.update(classBytes(type));
+        }
+
+        for (final Path codeSource : codeSources) {
+            update(codeSource.toString(), digest);
+            update(digester.digest(codeSource), digest);
+        }
+
+        update(template, digest);
+
+        for (final Map.Entry<String, String> option : sorted.entrySet()) {
+            update(option.getKey(), digest);
+            update(option.getValue(), digest);
+        }
+
+        for (final String property : JDK_PROPERTIES) {
+            update(System.getProperty(property), digest);
+        }
+
+        final StringBuilder key = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            key.append(HEX.charAt((b >> 4) & 0xF))
+                .append(HEX.charAt(b & 0xF));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Computes the digest of a single code source, allowing digests to be remembered.
+     */
+    private interface CodeSourceDigester {
+        byte[] digest(final Path codeSource) throws IOException;
+    }
+
+    /**
+     * System properties that identify the JDK and therefore its locale data.
+     */
+    private final static String[] JDK_PROPERTIES = new String[]{
+        "java.vendor",
+        "java.version",
+        "java.locale.providers"
+    };
+
+    private final static String HEX = "0123456789abcdef";
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException cause) {
+            throw new IllegalStateException("SHA-256 unavailable", cause);
+        }
+    }
+
+    /**
+     * Updates the digest with the length of the text followed by its chars, so adjacent values cannot run together.
+     */
+    private static void update(final String text,
+                               final MessageDigest digest) {
+        if (null == text) {
+            digest.update((byte) 0);
+        } else {
+            digest.update((byte) 1);
+            update(text.getBytes(StandardCharsets.UTF_8), digest);
+        }
+    }
+
+    /**
+     * Updates the digest with the length of the bytes followed by the bytes.
+     */
+    private static void update(final byte[] bytes,
+                               final MessageDigest digest) {
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    /**
+     * Returns the digest of the content of a jar, or the relative path and content of each file within a directory in a
+     * stable order. A missing code source has an empty digest.
+     */
+    private static byte[] codeSourceDigest(final Path codeSource) throws IOException {
+        final MessageDigest digest = sha256();
+
+        if (Files.isRegularFile(codeSource)) {
+            update(Files.readAllBytes(codeSource), digest);
+        } else {
+            if (Files.isDirectory(codeSource)) {
+                final List<Path> files;
+                try (final Stream<Path> walk = Files.walk(codeSource)) {
+                    files = walk.filter(Files::isRegularFile)
+                        .sorted()
+                        .collect(Collectors.toList());
+                }
+
+                for (final Path file : files) {
+                    update(codeSource.relativize(file).toString(), digest);
+                    update(Files.readAllBytes(file), digest);
+                }
+            }
+        }
+
+        return digest.digest();
+    }
+
+    private static byte[] classBytes(final Class<?> type) throws IOException {
+        final String resource = '/' + type.getName().replace('.', '/') + ".class";
+        try (final InputStream input = type.getResourceAsStream(resource)) {
+            if (null == input) {
+                throw new IOException("Unable to find class file " + CharSequences.quoteAndEscape(resource));
+            }
+            return input.readAllBytes();
+        }
+    }
+
+    /**
+     * Returns the entry for the given key if one exists.
+     */
+    Optional<LocaleAwareAnnotationProcessorCacheEntry> get(final String key) throws IOException {
+        final Path source = this.path(key, SOURCE);
+        final Path logging = this.path(key, LOGGING);
+        final Path summary = this.path(key, SUMMARY);
+
+        // summary is written last so its presence means the entry is complete
+        Optional<LocaleAwareAnnotationProcessorCacheEntry> entry = Optional.empty();
+        if (Files.isRegularFile(summary)) {
+            entry = Optional.of(
+                LocaleAwareAnnotationProcessorCacheEntry.with(
+                    read(source),
+                    read(logging),
+                    read(summary)
+                )
+            );
+
+            // the summary modified time records the last use for eviction
+            try {
+                Files.setLastModifiedTime(summary, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (final IOException ignore) {
+                // a read only cache is never evicted by this build
+            }
+        }
+        return entry;
+    }
+
+    private static String read(final Path path) throws IOException {
+        return new String(
+            Files.readAllBytes(path),
+            StandardCharsets.UTF_8
+        );
+    }
+
+    /**
+     * Saves the entry, writing each file to a temporary file before moving, so concurrent builds never read partial entries.
+     */
+    void put(final String key,
+             final LocaleAwareAnnotationProcessorCacheEntry entry) throws IOException {
+        Files.createDirectories(this.directory);
+
+        this.write(key, SOURCE, entry.source);
+        this.write(key, LOGGING, entry.logging);
+        this.write(key, SUMMARY, entry.summary);
+
+        this.evict();
+    }
+
+    /**
+     * Deletes the least recently used entries until at most {@link #MAX_ENTRIES} remain.
+     */
+    private void evict() throws IOException {
+        final List<Path> summaries;
+        try (final Stream<Path> list = Files.list(this.directory)) {
+            summaries = list.filter(p -> p.getFileName().toString().endsWith(SUMMARY))
+                .collect(Collectors.toList());
+        }
+
+        final int excess = summaries.size() - MAX_ENTRIES;
+        if (excess > 0) {
+            final Map<Path, FileTime> lastUsed = Maps.hash();
+            for (final Path summary : summaries) {
+                lastUsed.put(summary, Files.getLastModifiedTime(summary));
+            }
+            summaries.sort(Comparator.comparing(lastUsed::get));
+
+            for (final Path summary : summaries.subList(0, excess)) {
+                final String name = summary.getFileName().toString();
+                final String key = name.substring(0, name.length() - SUMMARY.length());
+
+                // summary first so a concurrent get never sees a partial entry
+                Files.deleteIfExists(summary);
+                Files.deleteIfExists(this.path(key, SOURCE));
+                Files.deleteIfExists(this.path(key, LOGGING));
+            }
+        }
+    }
+
+    /**
+     * The maximum number of entries kept, each entry is a generated source for one set of inputs.
+     */
+    final static int MAX_ENTRIES = 64;
+
+    private void write(final String key,
+                       final String extension,
+                       final String text) throws IOException {
+        final Path path = this.path(key, extension);
+        final Path temp = Files.createTempFile(this.directory, key, ".tmp");
+        try {
+            Files.write(temp, text.getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException ignore) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path path(final String key,
+                      final String extension) {
+        return this.directory.resolve(key + extension);
+    }
+
+    private final static String SOURCE = ".java";
+
+    private final static String LOGGING = ".log";
+
+    private final static String SUMMARY = ".summary";
+
+    private final Path directory;
+
+    @Override
+    public String toString() {
+        return this.directory.toString();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import java.util.Objects;
+
+/**
+ * The generated source, logging and summary saved by {@link LocaleAwareAnnotationProcessorCache}.
+ */
+final class LocaleAwareAnnotationProcessorCacheEntry {
+
+    static LocaleAwareAnnotationProcessorCacheEntry with(final String source,
+                                                         final String logging,
+                                                         final String summary) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(logging, "logging");
+        Objects.requireNonNull(summary, "summary");
+
+        return new LocaleAwareAnnotationProcessorCacheEntry(
+            source,
+            logging,
+            summary
+        );
+    }
+
+    private LocaleAwareAnnotationProcessorCacheEntry(final String source,
+                                                     final String logging,
+                                                     final String summary) {
+        super();
+        this.source = source;
+        this.logging = logging;
+        this.summary = summary;
+    }
+
+    final String source;
+
+    final String logging;
+
+    final String summary;
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+            this.source,
+            this.logging,
+            this.summary
+        );
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+            other instanceof LocaleAwareAnnotationProcessorCacheEntry &&
+                this.equals0((LocaleAwareAnnotationProcessorCacheEntry) other);
+    }
+
+    private boolean equals0(final LocaleAwareAnnotationProcessorCacheEntry other) {
+        return this.source.equals(other.source) &&
+            this.logging.equals(other.logging) &&
+            this.summary.equals(other.summary);
+    }
+
+    @Override
+    public String toString() {
+        return this.summary;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * The selected language tags and {@link Locale locales} for a locale filter, shared by all
+ * {@link LocaleAwareAnnotationProcessor} subclasses within a single javac invocation, so they are computed once rather
+ * than by every processor. Contexts are held weakly by {@link ProcessingEnvironment} and released with it.
+ */
+final class LocaleAwareAnnotationProcessorContext {
+
+    /**
+     * Returns the shared context for the given environment and locale filter, creating it on first use.
+     */
+    static LocaleAwareAnnotationProcessorContext get(final ProcessingEnvironment environment,
+                                                     final String localeFilter) {
+        Objects.requireNonNull(environment, "environment");
+        Objects.requireNonNull(localeFilter, "localeFilter");
+
+        synchronized (ENVIRONMENTS) {
+            Map<String, LocaleAwareAnnotationProcessorContext> filterToContext = ENVIRONMENTS.get(environment);
+            if (null == filterToContext) {
+                filterToContext = Maps.sorted();
+                ENVIRONMENTS.put(environment, filterToContext);
+            }
+
+            LocaleAwareAnnotationProcessorContext context = filterToContext.get(localeFilter);
+            if (null == context) {
+                context = new LocaleAwareAnnotationProcessorContext(localeFilter);
+                filterToContext.put(localeFilter, context);
+            }
+            return context;
+        }
+    }
+
+    /**
+     * A {@link WeakHashMap} so contexts do not outlive their javac invocation, guarded by synchronizing on itself.
+     */
+    private final static Map<ProcessingEnvironment, Map<String, LocaleAwareAnnotationProcessorContext>> ENVIRONMENTS = new WeakHashMap<>();
+
+    private LocaleAwareAnnotationProcessorContext(final String localeFilter) {
+        super();
+        this.localeFilter = localeFilter;
+        this.languageTags = WalkingkookaLanguageTag.all(localeFilter);
+        this.locales = LocaleSet.with(
+            LocaleAwareAnnotationProcessorTool.toLocales(this.languageTags)
+        );
+    }
+
+    /**
+     * The locale filter annotation processor option.
+     */
+    final String localeFilter;
+
+    /**
+     * The read only language tags selected by the {@link #localeFilter}.
+     */
+    final Set<String> languageTags;
+
+    /**
+     * A read only {@link LocaleSet} with a {@link Locale} for each of the {@link #languageTags}.
+     */
+    final LocaleSet locales;
+
+    @Override
+    public String toString() {
+        return this.localeFilter;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.text.CharSequences;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+
+/**
+ * A maximum size for the DATA, either in chars or gzipped bytes, that fails with the largest locale sections when exceeded.
+ * Generators that start a locale section for each locale get the chars of each locale, otherwise all the chars are
+ * listed as unsectioned.
+ */
+final class LocaleAwareAnnotationProcessorDataBudget {
+
+    /**
+     * Suffix for a budget in gzipped bytes, eg <code>40000gzip</code>.
+     */
+    final static String GZIP = "gzip";
+
+    /**
+     * Optional suffix for a budget in chars, eg <code>120000chars</code>.
+     */
+    final static String CHARS = "chars";
+
+    /**
+     * The number of the largest locale sections listed in the failure message.
+     */
+    final static int TOP = 10;
+
+    /**
+     * Parses a budget such as <code>120000</code>, <code>120000chars</code> or <code>40000gzip</code>.
+     */
+    static LocaleAwareAnnotationProcessorDataBudget parse(final String option,
+                                                          final String text) {
+        final boolean gzip = text.endsWith(GZIP);
+        final String number = gzip ?
+            text.substring(0, text.length() - GZIP.length()) :
+            text.endsWith(CHARS) ?
+                text.substring(0, text.length() - CHARS.length()) :
+                text;
+
+        int max;
+        try {
+            max = Integer.parseInt(number);
+        } catch (final NumberFormatException cause) {
+            max = -1;
+        }
+        if (max <= 0) {
+            throw new IllegalStateException(
+                "Bad annotation processor argument " +
+                    CharSequences.quote(option) +
+                    "=" +
+                    CharSequences.quoteIfChars(text) +
+                    ", expected a positive number of chars, optionally followed by " +
+                    CharSequences.quote(CHARS) +
+                    " or a number of gzipped bytes followed by " +
+                    CharSequences.quote(GZIP)
+            );
+        }
+
+        return new LocaleAwareAnnotationProcessorDataBudget(
+            max,
+            gzip
+        );
+    }
+
+    private LocaleAwareAnnotationProcessorDataBudget(final int max,
+                                                     final boolean gzip) {
+        super();
+        this.max = max;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Fails if the DATA exceeds this budget, listing the distinct locale sections with the most chars, along with the
+     * number of locales sharing each. Chars written outside any section are listed as
+     * {@link LocaleSectionDataOutput#UNSECTIONED}, so a generator that never starts a section is still checked.
+     */
+    void check(final String data,
+               final Map<String, Integer> sectionSizes,
+               final Map<String, Integer> sectionReferences) throws IOException {
+        final int size = this.gzip ?
+            LocaleAwareAnnotationProcessor.gzippedSize(data) :
+            data.length();
+
+        if (size > this.max) {
+            final List<Entry<String, Integer>> sections = Lists.array();
+            sections.addAll(sectionSizes.entrySet());
+            sections.sort((l, r) -> Integer.compare(r.getValue(), l.getValue()));
+
+            throw new IllegalStateException(
+                "DATA " +
+                    size +
+                    this.unit() +
+                    " exceeds budget of " +
+                    this.max +
+                    this.unit() +
+                    ", largest locales by char(s) before compression: " +
+                    sections.stream()
+                        .limit(TOP)
+                        .map(e -> e.getKey() + "=" + e.getValue() + references(e.getKey(), sectionReferences))
+                        .collect(Collectors.joining(", "))
+            );
+        }
+    }
+
+    private static String references(final String languageTag,
+                                     final Map<String, Integer> sectionReferences) {
+        final Integer references = sectionReferences.get(languageTag);
+        return null != references && references > 1 ?
+            " shared by " + references + " locales" :
+            "";
+    }
+
+    private String unit() {
+        return this.gzip ?
+            " gzipped byte(s)" :
+            " char(s)";
+    }
+
+    private final int max;
+
+    private final boolean gzip;
+
+    @Override
+    public String toString() {
+        return this.max +
+            (this.gzip ?
+                GZIP :
+                CHARS);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.j2cl.locale.TimeZoneCalendar;
+import walkingkooka.j2cl.locale.TimeZoneDisplay;
+import walkingkooka.reflect.PublicStaticHelper;
+
+import java.text.DateFormatSymbols;
+import java.text.DecimalFormatSymbols;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
+
+/**
+ * A snapshot of JDK locale data shared by every annotation processor within the same JVM, so data such as the
+ * {@link Calendar} week data for a {@link Locale} is only fetched from the JDK providers once. Values are computed
+ * lazily and the caches are safe for concurrent use. Mutable JDK objects such as {@link DateFormatSymbols} are cloned
+ * before they are returned.
+ */
+public final class LocaleAwareAnnotationProcessorJdkData implements PublicStaticHelper {
+
+    /**
+     * Returns the first day of week and minimal days in first week for the {@link Locale}.
+     */
+    public static TimeZoneCalendar calendar(final Locale locale) {
+        return CALENDARS.computeIfAbsent(
+            Objects.requireNonNull(locale, "locale"),
+            (l) -> TimeZoneCalendar.with(
+                Calendar.getInstance(l)
+            )
+        );
+    }
+
+    private final static Map<Locale, TimeZoneCalendar> CALENDARS = Maps.concurrent();
+
+    /**
+     * Returns a copy of the {@link DateFormatSymbols} for the {@link Locale}.
+     */
+    public static DateFormatSymbols dateFormatSymbols(final Locale locale) {
+        return (DateFormatSymbols) DATE_FORMAT_SYMBOLS.computeIfAbsent(
+            Objects.requireNonNull(locale, "locale"),
+            DateFormatSymbols::getInstance
+        ).clone();
+    }
+
+    private final static Map<Locale, DateFormatSymbols> DATE_FORMAT_SYMBOLS = Maps.concurrent();
+
+    /**
+     * Returns a copy of the {@link DecimalFormatSymbols} for the {@link Locale}.
+     */
+    public static DecimalFormatSymbols decimalFormatSymbols(final Locale locale) {
+        return (DecimalFormatSymbols) DECIMAL_FORMAT_SYMBOLS.computeIfAbsent(
+            Objects.requireNonNull(locale, "locale"),
+            DecimalFormatSymbols::getInstance
+        ).clone();
+    }
+
+    private final static Map<Locale, DecimalFormatSymbols> DECIMAL_FORMAT_SYMBOLS = Maps.concurrent();
+
+    /**
+     * Returns the short and long, standard and daylight display names of the time zone for the {@link Locale}.
+     */
+    public static TimeZoneDisplay timeZoneDisplay(final String zoneId,
+                                                  final Locale locale) {
+        Objects.requireNonNull(zoneId, "zoneId");
+        Objects.requireNonNull(locale, "locale");
+
+        return TIME_ZONE_DISPLAYS.computeIfAbsent(
+            locale,
+            (l) -> Maps.concurrent()
+        ).computeIfAbsent(
+            zoneId,
+            (z) -> timeZoneDisplay0(
+                TimeZone.getTimeZone(z),
+                locale
+            )
+        );
+    }
+
+    private static TimeZoneDisplay timeZoneDisplay0(final TimeZone timeZone,
+                                                    final Locale locale) {
+        return TimeZoneDisplay.with(
+            timeZone.getDisplayName(false, TimeZone.SHORT, locale),
+            timeZone.getDisplayName(true, TimeZone.SHORT, locale),
+            timeZone.getDisplayName(false, TimeZone.LONG, locale),
+            timeZone.getDisplayName(true, TimeZone.LONG, locale)
+        );
+    }
+
+    private final static Map<Locale, Map<String, TimeZoneDisplay>> TIME_ZONE_DISPLAYS = Maps.concurrent();
+
+    /**
+     * Stop creation
+     */
+    private LocaleAwareAnnotationProcessorJdkData() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import walkingkooka.collect.map.Maps;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Accumulates the nanoseconds spent in each phase of generating a source along with some sizes, which are printed in the
+ * summary and may be written as JSON.
+ */
+final class LocaleAwareAnnotationProcessorMetrics {
+
+    /**
+     * Building or fetching the shared selected language tags and locales and the default value.
+     */
+    final static String LOCALES = "locales";
+
+    /**
+     * Calling {@link LocaleAwareAnnotationProcessor#generate}.
+     */
+    final static String GENERATE = "generate";
+
+    /**
+     * Finishing the DATA, including compression and sizing.
+     */
+    final static String DATA = "data";
+
+    /**
+     * Escaping and splitting the DATA into string literals.
+     */
+    final static String ESCAPE = "escape";
+
+    /**
+     * Merging the template, excluding the escape and write phases.
+     */
+    final static String MERGE = "merge";
+
+    /**
+     * Writing through the Filer.
+     */
+    final static String WRITE = "write";
+
+    /**
+     * Reading or writing the cache directory.
+     */
+    final static String CACHE = "cache";
+
+    static LocaleAwareAnnotationProcessorMetrics empty() {
+        return new LocaleAwareAnnotationProcessorMetrics();
+    }
+
+    private LocaleAwareAnnotationProcessorMetrics() {
+        super();
+    }
+
+    /**
+     * Adds the time since start, which should be a value from {@link System#nanoTime()}, to the phase.
+     */
+    void end(final String phase,
+             final long start) {
+        this.add(phase, System.nanoTime() - start);
+    }
+
+    /**
+     * Adds the nanoseconds to the given phase.
+     */
+    void add(final String phase,
+             final long nanos) {
+        final Map<String, Long> phases = this.phases;
+        final Long previous = phases.get(phase);
+        phases.put(
+            phase,
+            null == previous ?
+                nanos :
+                previous + nanos
+        );
+    }
+
+    /**
+     * Returns the nanoseconds recorded for the phase or zero.
+     */
+    long nanos(final String phase) {
+        final Long nanos = this.phases.get(phase);
+        return null == nanos ?
+            0 :
+            nanos;
+    }
+
+    /**
+     * Phases in the order they were first recorded.
+     */
+    private final Map<String, Long> phases = Maps.ordered();
+
+    /**
+     * Records a size or count.
+     */
+    void value(final String name,
+               final long value) {
+        this.values.put(name, value);
+    }
+
+    private final Map<String, Long> values = Maps.ordered();
+
+    /**
+     * Returns a {@link Writer} that adds the time spent writing to the given {@link Writer} to {@link #WRITE}
+     * and counts the chars written.
+     */
+    LocaleAwareAnnotationProcessorMetricsWriter writer(final Writer writer) {
+        return LocaleAwareAnnotationProcessorMetricsWriter.with(writer, this);
+    }
+
+    private long total() {
+        long total = 0;
+        for (final Long nanos : this.phases.values()) {
+            total += nanos;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the phases in milliseconds for the summary.
+     */
+    String summary() {
+        final StringBuilder summary = new StringBuilder();
+        summary.append("time:");
+
+        for (final Entry<String, Long> phase : this.phases.entrySet()) {
+            summary.append(' ')
+                .append(phase.getKey())
+                .append(' ')
+                .append(millis(phase.getValue()))
+                .append("ms,");
+        }
+
+        return summary.append(" total ")
+            .append(millis(this.total()))
+            .append("ms")
+            .toString();
+    }
+
+    private static long millis(final long nanos) {
+        return nanos / 1000000;
+    }
+
+    /**
+     * Writes the metrics as a JSON object with the processor and generated class names, the value of each phase in
+     * nanoseconds and the values.
+     */
+    void writeJson(final String processor,
+                   final String generated,
+                   final Writer writer) throws IOException {
+        writer.write("{\n");
+        writer.write("  \"processor\": \"" + processor + "\",\n");
+        writer.write("  \"generated\": \"" + generated + "\",\n");
+
+        writer.write("  \"nanos\": {\n");
+        for (final Entry<String, Long> phase : this.phases.entrySet()) {
+            writer.write("    \"" + phase.getKey() + "\": " + phase.getValue() + ",\n");
+        }
+        writer.write("    \"total\": " + this.total() + "\n");
+        writer.write("  },\n");
+
+        writer.write("  \"values\": {");
+        String separator = "\n";
+        for (final Entry<String, Long> value : this.values.entrySet()) {
+            writer.write(separator + "    \"" + value.getKey() + "\": " + value.getValue());
+            separator = ",\n";
+        }
+        writer.write("\n  }\n");
+        writer.write("}\n");
+    }
+
+    @Override
+    public String toString() {
+        return this.summary();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A {@link Writer} that records the time spent by the wrapped {@link Writer} as the
+ * {@link LocaleAwareAnnotationProcessorMetrics#WRITE} phase and counts the chars written.
+ */
+final class LocaleAwareAnnotationProcessorMetricsWriter extends Writer {
+
+    static LocaleAwareAnnotationProcessorMetricsWriter with(final Writer writer,
+                                                            final LocaleAwareAnnotationProcessorMetrics metrics) {
+        return new LocaleAwareAnnotationProcessorMetricsWriter(writer, metrics);
+    }
+
+    private LocaleAwareAnnotationProcessorMetricsWriter(final Writer writer,
+                                                        final LocaleAwareAnnotationProcessorMetrics metrics) {
+        super();
+        this.writer = writer;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        final long start = System.nanoTime();
+        this.writer.write(c);
+        this.metrics.end(LocaleAwareAnnotationProcessorMetrics.WRITE, start);
+        this.count++;
+    }
+
+    @Override
+    public void write(final String text,
+                      final int offset,
+                      final int length) throws IOException {
+        final long start = System.nanoTime();
+        this.writer.write(text, offset, length);
+        this.metrics.end(LocaleAwareAnnotationProcessorMetrics.WRITE, start);
+        this.count += length;
+    }
+
+    @Override
+    public void write(final char[] chars,
+                      final int offset,
+                      final int length) throws IOException {
+        final long start = System.nanoTime();
+        this.writer.write(chars, offset, length);
+        this.metrics.end(LocaleAwareAnnotationProcessorMetrics.WRITE, start);
+        this.count += length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        final long start = System.nanoTime();
+        this.writer.flush();
+        this.metrics.end(LocaleAwareAnnotationProcessorMetrics.WRITE, start);
+    }
+
+    @Override
+    public void close() throws IOException {
+        final long start = System.nanoTime();
+        this.writer.close();
+        this.metrics.end(LocaleAwareAnnotationProcessorMetrics.WRITE, start);
+    }
+
+    /**
+     * The number of chars written.
+     */
+    long count() {
+        return this.count;
+    }
+
+    private long count;
+
+    private final Writer writer;
+
+    private final LocaleAwareAnnotationProcessorMetrics metrics;
+
+    @Override
+    public String toString() {
+        return this.writer.toString();
+    }
+}
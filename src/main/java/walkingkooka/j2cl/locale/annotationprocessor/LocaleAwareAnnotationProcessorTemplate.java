@@ -0,0 +1,198 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.text.CharSequences;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template compiled into the literal text between placeholders, so it can be merged in a single pass directly into a
+ * {@link Writer} without copying the template for every placeholder.
+ */
+final class LocaleAwareAnnotationProcessorTemplate {
+
+    /**
+     * Placeholders that every template must contain.
+     */
+    private final static String[] REQUIRED = new String[]{
+        LocaleAwareAnnotationProcessor.ANNOTATION_PROCESSOR_LOCALES_FILTER,
+        LocaleAwareAnnotationProcessor.SELECTED_LOCALES,
+        LocaleAwareAnnotationProcessor.DATA_COMMENT,
+        LocaleAwareAnnotationProcessor.DATA
+    };
+
+    /**
+     * All placeholders longest first, so <code>$DATA_COMMENT</code> and <code>$DATA_INPUT</code> are matched before <code>$DATA</code>.
+     */
+    private final static String[] PLACEHOLDERS = new String[]{
+        LocaleAwareAnnotationProcessor.ANNOTATION_PROCESSOR_LOCALES_FILTER,
+        LocaleAwareAnnotationProcessor.SELECTED_LOCALES,
+        LocaleAwareAnnotationProcessor.DATA_COMMENT,
+        LocaleAwareAnnotationProcessor.DATA_INPUT,
+        LocaleAwareAnnotationProcessor.DEFAULT,
+        LocaleAwareAnnotationProcessor.DATA
+    };
+
+    private final static char PLACEHOLDER_START = '$';
+
+    /**
+     * Finds all placeholders in the template text, failing if any required placeholder is missing.
+     */
+    static LocaleAwareAnnotationProcessorTemplate compile(final String text,
+                                                          final String name) {
+        final List<String> literals = Lists.array();
+        final List<String> placeholders = Lists.array();
+
+        final int length = text.length();
+        int literalStart = 0;
+        int i = 0;
+
+        while (i < length) {
+            final int dollar = text.indexOf(PLACEHOLDER_START, i);
+            if (-1 == dollar) {
+                break;
+            }
+
+            final String placeholder = placeholderAt(text, dollar);
+            if (null == placeholder) {
+                i = dollar + 1;
+            } else {
+                literals.add(text.substring(literalStart, dollar));
+                placeholders.add(placeholder);
+
+                i = dollar + placeholder.length();
+                literalStart = i;
+            }
+        }
+        literals.add(text.substring(literalStart));
+
+        for (final String required : REQUIRED) {
+            if (false == placeholders.contains(required)) {
+                throw new IllegalStateException(
+                    "Unable to find " +
+                        CharSequences.quoteAndEscape(required) +
+                        " in " +
+                        CharSequences.quoteAndEscape(name)
+                );
+            }
+        }
+
+        return new LocaleAwareAnnotationProcessorTemplate(
+            text,
+            name,
+            literals.toArray(new String[0]),
+            placeholders.toArray(new String[0])
+        );
+    }
+
+    private static String placeholderAt(final String text,
+                                        final int offset) {
+        for (final String placeholder : PLACEHOLDERS) {
+            if (text.startsWith(placeholder, offset)) {
+                return placeholder;
+            }
+        }
+        return null;
+    }
+
+    private LocaleAwareAnnotationProcessorTemplate(final String text,
+                                                   final String name,
+                                                   final String[] literals,
+                                                   final String[] placeholders) {
+        super();
+        this.text = text;
+        this.name = name;
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * Returns true if the template contains the given placeholder.
+     */
+    boolean has(final String placeholder) {
+        for (final String p : this.placeholders) {
+            if (p.equals(placeholder)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the template with each placeholder replaced by its value. Placeholders without a value are written as is,
+     * and values without a placeholder in this template fail.
+     */
+    void render(final Map<String, LocaleAwareAnnotationProcessorTemplateValue> values,
+                final Writer writer) throws IOException {
+        for (final String placeholder : values.keySet()) {
+            if (false == this.has(placeholder)) {
+                throw new IllegalStateException(
+                    "Unable to find " +
+                        CharSequences.quoteAndEscape(placeholder) +
+                        " in " +
+                        CharSequences.quoteAndEscape(this.name)
+                );
+            }
+        }
+
+        final String[] literals = this.literals;
+        final String[] placeholders = this.placeholders;
+        final int count = placeholders.length;
+
+        for (int i = 0; i < count; i++) {
+            writer.write(literals[i]);
+
+            final String placeholder = placeholders[i];
+            final LocaleAwareAnnotationProcessorTemplateValue value = values.get(placeholder);
+            if (null != value) {
+                value.write(writer);
+            } else {
+                writer.write(placeholder);
+            }
+        }
+        writer.write(literals[count]);
+    }
+
+    /**
+     * The original template text.
+     */
+    String text() {
+        return this.text;
+    }
+
+    private final String text;
+
+    private final String name;
+
+    /**
+     * The text before each placeholder, with an extra last element holding the text after the last placeholder.
+     */
+    private final String[] literals;
+
+    private final String[] placeholders;
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
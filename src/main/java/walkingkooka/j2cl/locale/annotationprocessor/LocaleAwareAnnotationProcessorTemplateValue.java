@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * The value of a placeholder, written directly to the output when a {@link LocaleAwareAnnotationProcessorTemplate} is
+ * rendered, so large values such as <code>$DATA</code> never need to be held as a single {@link String}.
+ */
+@FunctionalInterface
+interface LocaleAwareAnnotationProcessorTemplateValue {
+
+    /**
+     * A value that writes the given text.
+     */
+    static LocaleAwareAnnotationProcessorTemplateValue text(final CharSequence text) {
+        return (writer) -> writer.append(text);
+    }
+
+    /**
+     * Writes this value to the {@link Writer}.
+     */
+    void write(final Writer writer) throws IOException;
+}
@@ -18,16 +18,26 @@
 package walkingkooka.j2cl.locale.annotationprocessor;
 
 import walkingkooka.collect.map.Maps;
-import walkingkooka.collect.set.SortedSets;
 import walkingkooka.reflect.PublicStaticHelper;
 import walkingkooka.text.CharSequences;
+import walkingkooka.text.Indentation;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.IndentingPrinter;
+import walkingkooka.text.printer.Printers;
 
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public final class LocaleAwareAnnotationProcessorTool implements PublicStaticHelper {
@@ -42,12 +52,15 @@ public final class LocaleAwareAnnotationProcessorTool implements PublicStaticHel
     }
 
     /**
-     * Converts the language tags to {@link Locale locales}.
+     * Converts the language tags to an immutable {@link LocaleSet} sorted by language tag. Callers that need to modify
+     * the result should copy it.
      */
     public static Set<Locale> toLocales(final Set<String> languageTags) {
-        return languageTags.stream()
-            .map(Locale::forLanguageTag)
-            .collect(Collectors.toCollection(() -> SortedSets.tree(LOCALE_COMPARATOR)));
+        return LocaleSet.with(
+            languageTags.stream()
+                .map(Locale::forLanguageTag)
+                .collect(Collectors.toList())
+        );
     }
 
     public static <T extends Comparable<T>> Map<T, Set<Locale>> buildMultiLocaleMap(final Function<Locale, T> extractor,
@@ -56,21 +69,143 @@ public final class LocaleAwareAnnotationProcessorTool implements PublicStaticHel
     }
 
     /**
-     * Builds a {@link Map} with values that share common {@link Locale locales}, think grouping but to a {@link Set}
+     * Builds a {@link Map} with values that share common {@link Locale locales}, think grouping but to a {@link Set}.
+     * Each {@link Set} is an immutable {@link LocaleSet} sharing the universe of the given locales.
      */
     public static <T> Map<T, Set<Locale>> buildMultiLocaleMap(final Comparator<T> comparator,
                                                               final Function<Locale, T> extractor,
                                                               final Set<Locale> locales) {
-        final Map<T, Set<Locale>> map = Maps.sorted(comparator);
+        final LocaleSet all = LocaleSet.with(locales);
+        final LocaleSetUniverse universe = all.universe;
+        final BitSet bits = all.bits;
+
+        final Map<T, BitSet> valueToOrdinals = Maps.sorted(comparator);
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            final T value = extractor.apply(universe.locale(i));
+            BitSet ordinals = valueToOrdinals.get(value);
+            if (null == ordinals) {
+                ordinals = new BitSet(universe.size());
+                valueToOrdinals.put(value, ordinals);
+            }
+            ordinals.set(i);
+        }
 
-        for (final Locale locale : locales) {
-            final T value = extractor.apply(locale);
-            Set<Locale> sharedLocales = map.get(value);
-            if (null == sharedLocales) {
-                sharedLocales = SortedSets.tree(LOCALE_COMPARATOR);
-                map.put(value, sharedLocales);
+        return multiLocaleMap(comparator, universe, valueToOrdinals);
+    }
+
+    /**
+     * Builds a {@link Map} with values that share common {@link Locale locales} using the natural order of the values,
+     * calling the extractor for up to parallelism locales at the same time.
+     */
+    public static <T extends Comparable<T>> Map<T, Set<Locale>> buildMultiLocaleMap(final Function<Locale, T> extractor,
+                                                                                    final Set<Locale> locales,
+                                                                                    final int parallelism) {
+        return buildMultiLocaleMap(Comparator.naturalOrder(), extractor, locales, parallelism);
+    }
+
+    /**
+     * Builds a {@link Map} with values that share common {@link Locale locales}, calling the extractor for up to
+     * parallelism locales at the same time using the calling thread and a {@link ForkJoinPool} created for this call
+     * and shut down before returning. The {@link Map} is the same as that built one locale at a time, which is what a
+     * parallelism of 1 does. After the first exception thrown by the extractor no more locales are started, and it is
+     * rethrown wrapped in an {@link IllegalStateException} with its language tag.
+     */
+    public static <T> Map<T, Set<Locale>> buildMultiLocaleMap(final Comparator<T> comparator,
+                                                              final Function<Locale, T> extractor,
+                                                              final Set<Locale> locales,
+                                                              final int parallelism) {
+        Objects.requireNonNull(comparator, "comparator");
+        Objects.requireNonNull(extractor, "extractor");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism " + parallelism + " < 1");
+        }
+
+        final LocaleSet all = LocaleSet.with(locales);
+        final int count = all.cardinality();
+
+        return 1 == parallelism || count < 2 ?
+            buildMultiLocaleMap(comparator, extractor, all) :
+            buildMultiLocaleMapParallel(comparator, extractor, all, count, parallelism);
+    }
+
+    private static <T> Map<T, Set<Locale>> buildMultiLocaleMapParallel(final Comparator<T> comparator,
+                                                                       final Function<Locale, T> extractor,
+                                                                       final LocaleSet all,
+                                                                       final int count,
+                                                                       final int parallelism) {
+        final LocaleSetUniverse universe = all.universe;
+        final int[] allOrdinals = all.bits.stream()
+            .toArray();
+
+        final Object[] values = new Object[count];
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        // each worker takes the next locale until all are taken or one fails
+        final Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < count && null == failure.get(); i = next.getAndIncrement()) {
+                final Locale locale = universe.locale(allOrdinals[i]);
+                try {
+                    values[i] = extractor.apply(locale);
+                } catch (final RuntimeException cause) {
+                    failure.compareAndSet(
+                        null,
+                        new IllegalStateException(
+                            "Unable to extract value for locale " +
+                                CharSequences.quote(locale.toLanguageTag()) +
+                                ", " +
+                                cause.getMessage(),
+                            cause
+                        )
+                    );
+                }
+            }
+        };
+
+        // the calling thread is also a worker, the others run in a pool of their own so the blocking JDK calls made by
+        // extractors are not limited by or tie up the common pool
+        final ForkJoinTask<?>[] workers = new ForkJoinTask<?>[Math.min(parallelism, count) - 1];
+        final ForkJoinPool pool = new ForkJoinPool(workers.length);
+        try {
+            for (int w = 0; w < workers.length; w++) {
+                workers[w] = pool.submit(worker);
+            }
+            worker.run();
+            for (final ForkJoinTask<?> w : workers) {
+                w.join();
             }
-            sharedLocales.add(locale);
+        } finally {
+            pool.shutdown();
+        }
+
+        final RuntimeException thrown = failure.get();
+        if (null != thrown) {
+            throw thrown;
+        }
+
+        final Map<T, BitSet> valueToOrdinals = Maps.sorted(comparator);
+        for (int i = 0; i < count; i++) {
+            @SuppressWarnings("unchecked") final T value = (T) values[i];
+            BitSet ordinals = valueToOrdinals.get(value);
+            if (null == ordinals) {
+                ordinals = new BitSet(universe.size());
+                valueToOrdinals.put(value, ordinals);
+            }
+            ordinals.set(allOrdinals[i]);
+        }
+
+        return multiLocaleMap(comparator, universe, valueToOrdinals);
+    }
+
+    private static <T> Map<T, Set<Locale>> multiLocaleMap(final Comparator<T> comparator,
+                                                          final LocaleSetUniverse universe,
+                                                          final Map<T, BitSet> valueToOrdinals) {
+        final Map<T, Set<Locale>> map = Maps.sorted(comparator);
+        for (final Entry<T, BitSet> valueAndOrdinals : valueToOrdinals.entrySet()) {
+            map.put(
+                valueAndOrdinals.getKey(),
+                LocaleSet.with(universe, valueAndOrdinals.getValue())
+            );
         }
 
         return map;
@@ -110,6 +245,37 @@ public final class LocaleAwareAnnotationProcessorTool implements PublicStaticHel
         return count + " " + label + "(s) selected by " + CharSequences.quoteAndEscape(filter);
     }
 
+    // comments.......................................................................................................
+
+    /**
+     * Creates a new comments {@link IndentingPrinter} for a single run when logging is {@link Logging#NONE}, that
+     * discards everything and has no {@link LineEnding}.
+     */
+    static IndentingPrinter noComments() {
+        return Printers.sink(LineEnding.NONE)
+            .indenting(Indentation.EMPTY);
+    }
+
+    /**
+     * Returns true if the comments {@link IndentingPrinter} will record anything, which is flagged by a
+     * {@link LineEnding} other than {@link LineEnding#NONE}. Generators should test this before formatting comments,
+     * so builds without logging skip the work.
+     */
+    public static boolean isLogging(final IndentingPrinter comments) {
+        return LineEnding.NONE != comments.lineEnding();
+    }
+
+    /**
+     * Prints the comment on a new line, only calling the {@link Supplier} when {@link #isLogging(IndentingPrinter)}.
+     */
+    public static void comment(final IndentingPrinter comments,
+                               final Supplier<? extends CharSequence> comment) {
+        if (isLogging(comments)) {
+            comments.lineStart();
+            comments.print(comment.get());
+        }
+    }
+
     /**
      * Stop creation
      */
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.j2cl.locale.LocaleParentDeltaDecoder;
+import walkingkooka.j2cl.locale.VarInts;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.text.CharSequences;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+/**
+ * Gathers a record of string fields for each language tag and writes each record relative to its parent, the first
+ * language tag tried by {@link WalkingkookaLanguageTag#tryLookup(java.util.function.Function)} that also has a record.
+ * Parents are written before their children, and each record is written as a bitmask of the fields that differ from
+ * its parent followed by only those fields, so regions such as <code>en-AU</code> that differ from <code>en</code> in
+ * a few fields take a few chars. The records are read by {@link LocaleParentDeltaDecoder}. Records without a parent
+ * are written in full, so a generator for a filter such as <code>EN-*</code>, which does not select <code>en</code>,
+ * should also add the record for <code>en</code>.
+ */
+public final class LocaleParentDeltaEncoder {
+
+    /**
+     * Creates an empty {@link LocaleParentDeltaEncoder} for records with the given number of fields.
+     */
+    public static LocaleParentDeltaEncoder with(final int fieldCount) {
+        if (fieldCount < 1) {
+            throw new IllegalArgumentException("Invalid field count " + fieldCount + " < 1");
+        }
+        return new LocaleParentDeltaEncoder(fieldCount);
+    }
+
+    private LocaleParentDeltaEncoder(final int fieldCount) {
+        super();
+        this.fieldCount = fieldCount;
+    }
+
+    /**
+     * Adds the record for the given language tag.
+     */
+    public void add(final String languageTag,
+                    final String... fields) {
+        CharSequences.failIfNullOrEmpty(languageTag, "languageTag");
+        Objects.requireNonNull(fields, "fields");
+
+        if (this.fieldCount != fields.length) {
+            throw new IllegalArgumentException("Expected " + this.fieldCount + " field(s) but got " + fields.length + " for " + CharSequences.quote(languageTag));
+        }
+        for (final String field : fields) {
+            Objects.requireNonNull(field, "field");
+        }
+        if (this.records.containsKey(languageTag)) {
+            throw new IllegalStateException("Duplicate record " + CharSequences.quote(languageTag));
+        }
+
+        this.records.put(languageTag, fields.clone());
+    }
+
+    /**
+     * Writes all records, parents before their children, with each record holding only the fields that differ from its parent.
+     */
+    public void write(final DataOutput data) throws IOException {
+        final int fieldCount = this.fieldCount;
+        final Map<String, String> parents = this.parents();
+        final List<String> languageTags = this.parentsFirst(parents);
+
+        VarInts.write(fieldCount, data);
+        VarInts.write(languageTags.size(), data);
+
+        final Map<String, Integer> languageTagToIndex = Maps.hash();
+
+        for (final String languageTag : languageTags) {
+            final String[] fields = this.records.get(languageTag);
+            final String parentLanguageTag = parents.get(languageTag);
+            final String[] parent = null != parentLanguageTag ?
+                this.records.get(parentLanguageTag) :
+                null;
+
+            data.writeUTF(languageTag);
+            VarInts.write(
+                null != parent ?
+                    languageTagToIndex.get(parentLanguageTag) + 1 :
+                    0,
+                data
+            );
+
+            final int masks = LocaleParentDeltaDecoder.maskCount(fieldCount);
+            for (int m = 0; m < masks; m++) {
+                int mask = 0;
+                for (int b = 0; b < LocaleParentDeltaDecoder.MASK_BITS; b++) {
+                    final int f = m * LocaleParentDeltaDecoder.MASK_BITS + b;
+                    if (f < fieldCount && isChanged(fields, parent, f)) {
+                        mask |= 1 << b;
+                    }
+                }
+                VarInts.write(mask, data);
+            }
+
+            for (int f = 0; f < fieldCount; f++) {
+                if (isChanged(fields, parent, f)) {
+                    data.writeUTF(fields[f]);
+                }
+            }
+
+            languageTagToIndex.put(languageTag, languageTagToIndex.size());
+        }
+    }
+
+    private static boolean isChanged(final String[] fields,
+                                     final String[] parent,
+                                     final int f) {
+        return null == parent ||
+            false == fields[f].equals(parent[f]);
+    }
+
+    /**
+     * The number of fields that are not written because they equal the same field of the parent record.
+     */
+    int omittedFields() {
+        final int fieldCount = this.fieldCount;
+        int omitted = 0;
+
+        for (final Entry<String, String> languageTagAndParent : this.parents().entrySet()) {
+            final String parentLanguageTag = languageTagAndParent.getValue();
+            if (null != parentLanguageTag) {
+                final String[] fields = this.records.get(languageTagAndParent.getKey());
+                final String[] parent = this.records.get(parentLanguageTag);
+
+                for (int f = 0; f < fieldCount; f++) {
+                    if (false == isChanged(fields, parent, f)) {
+                        omitted++;
+                    }
+                }
+            }
+        }
+
+        return omitted;
+    }
+
+    /**
+     * Returns the parent language tag of each record, or null if it has no parent record.
+     */
+    private Map<String, String> parents() {
+        final Map<String, String> parents = Maps.sorted();
+
+        for (final String languageTag : this.records.keySet()) {
+            parents.put(
+                languageTag,
+                WalkingkookaLanguageTag.parse(languageTag)
+                    .tryLookup(
+                        (c) -> false == c.equals(languageTag) && this.records.containsKey(c) ?
+                            c :
+                            null
+                    ).orElse(null)
+            );
+        }
+
+        return parents;
+    }
+
+    /**
+     * Sorts the language tags by the number of ancestors and then language tag, so every parent is before its children.
+     */
+    private List<String> parentsFirst(final Map<String, String> parents) {
+        final Map<String, Integer> depths = Maps.hash();
+        for (final String languageTag : parents.keySet()) {
+            int depth = 0;
+            for (String parent = parents.get(languageTag); null != parent; parent = parents.get(parent)) {
+                depth++;
+            }
+            depths.put(languageTag, depth);
+        }
+
+        final List<String> languageTags = Lists.array();
+        languageTags.addAll(parents.keySet());
+        languageTags.sort(
+            Comparator.<String>comparingInt(depths::get)
+                .thenComparing(Comparator.naturalOrder())
+        );
+        return languageTags;
+    }
+
+    private final int fieldCount;
+
+    private final Map<String, String[]> records = Maps.sorted();
+
+    @Override
+    public String toString() {
+        return this.records.size() + " record(s), " + this.fieldCount + " field(s)";
+    }
+}
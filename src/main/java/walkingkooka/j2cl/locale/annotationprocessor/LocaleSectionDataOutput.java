@@ -0,0 +1,404 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.LocaleSectionIndex;
+import walkingkooka.j2cl.locale.VarInts;
+import walkingkooka.text.CharSequences;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link DataOutput} given to {@link LocaleAwareAnnotationProcessor#generate}. Generators that call
+ * {@link #section(String)} before writing each locale get an index header mapping each language tag to the char offset
+ * of its section, which is read by {@link LocaleSectionIndex} so a single locale may be decoded without reading the others.
+ * Each section starts with a new {@link StringTableDataOutput} table when string tables are enabled, so it may be read alone.
+ * Sections with identical chars, such as regions sharing the same symbols, are stored once with each language tag mapped
+ * to the id of the distinct section.
+ */
+public final class LocaleSectionDataOutput implements DataOutput {
+
+    static LocaleSectionDataOutput with(final boolean stringTable) {
+        return new LocaleSectionDataOutput(stringTable);
+    }
+
+    private LocaleSectionDataOutput(final boolean stringTable) {
+        super();
+        this.stringTable = stringTable;
+        this.output = this.output();
+    }
+
+    /**
+     * Starts the section for the given language tag, anything written before the first section is the prologue.
+     */
+    public void section(final String languageTag) {
+        CharSequences.failIfNullOrEmpty(languageTag, "languageTag");
+        if (this.languageTags.contains(languageTag)) {
+            throw new IllegalStateException("Duplicate section " + CharSequences.quote(languageTag));
+        }
+
+        this.languageTags.add(languageTag);
+        this.offsets.add(this.body.length());
+        this.output = this.output();
+    }
+
+    private DataOutput output() {
+        final DataOutput output = StringDataInputDataOutput.output(this.body::append);
+        return this.stringTable ?
+            StringTableDataOutput.with(output) :
+            output;
+    }
+
+    /**
+     * The number of sections started.
+     */
+    int sectionCount() {
+        return this.languageTags.size();
+    }
+
+    /**
+     * The key in {@link #sectionSizes()} for the chars written outside any section, which is every char when the
+     * generator never starts a section.
+     */
+    final static String UNSECTIONED = "(unsectioned)";
+
+    /**
+     * Returns the number of chars in each distinct section keyed by the language tag of its first section, in the order
+     * they were started, preceded by any chars written before the first section under {@link #UNSECTIONED}. A section
+     * identical to an earlier section is stored once, so its chars are only charged to the first language tag, see
+     * {@link #sectionReferences()}.
+     */
+    Map<String, Integer> sectionSizes() {
+        final Map<String, Integer> sizes = Maps.ordered();
+
+        final int unsectioned = this.sectionCount() > 0 ?
+            this.offsets.get(0) :
+            this.body.length();
+        if (unsectioned > 0) {
+            sizes.put(
+                UNSECTIONED,
+                unsectioned
+            );
+        }
+
+        final List<String> languageTags = this.languageTags;
+        final int[] ids = this.sectionIds();
+        final int count = ids.length;
+
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            if (next == ids[i]) {
+                sizes.put(
+                    languageTags.get(i),
+                    this.end(i) - this.offsets.get(i)
+                );
+                next++;
+            }
+        }
+
+        return sizes;
+    }
+
+    /**
+     * Returns the number of language tags sharing each distinct section, with the same keys and order as
+     * {@link #sectionSizes()} without {@link #UNSECTIONED}.
+     */
+    Map<String, Integer> sectionReferences() {
+        final Map<String, Integer> references = Maps.ordered();
+
+        final List<String> languageTags = this.languageTags;
+        final int[] ids = this.sectionIds();
+        final int count = ids.length;
+
+        final int[] idToReferences = new int[distinct(ids)];
+        for (final int id : ids) {
+            idToReferences[id]++;
+        }
+
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            final int id = ids[i];
+            if (next == id) {
+                references.put(
+                    languageTags.get(i),
+                    idToReferences[id]
+                );
+                next++;
+            }
+        }
+
+        return references;
+    }
+
+    /**
+     * The number of distinct sections, sections with identical chars are only counted once.
+     */
+    int distinctSectionCount() {
+        return distinct(this.sectionIds());
+    }
+
+    private static int distinct(final int[] ids) {
+        int distinct = 0;
+        for (final int id : ids) {
+            distinct = Math.max(distinct, id + 1);
+        }
+        return distinct;
+    }
+
+    /**
+     * The number of chars not written because their section was identical to an earlier section.
+     */
+    int deduplicatedChars() {
+        final int[] ids = this.sectionIds();
+        final int count = ids.length;
+
+        int deduplicated = 0;
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            if (next == ids[i]) {
+                next++;
+            } else {
+                deduplicated += this.end(i) - this.offsets.get(i);
+            }
+        }
+        return deduplicated;
+    }
+
+    /**
+     * Returns the id of the distinct section for each section in the order they were started. Ids are given in the order
+     * distinct sections first appear, and a section identical to an earlier section shares its id. The ids are
+     * remembered until another section is started or more chars are written, as sections and the body only grow.
+     */
+    private int[] sectionIds() {
+        final int count = this.sectionCount();
+        final int length = this.body.length();
+
+        int[] ids = this.sectionIds;
+        if (null == ids || count != ids.length || length != this.sectionIdsBodyLength) {
+            final Map<String, Integer> sectionToId = Maps.hash();
+            ids = new int[count];
+
+            for (int i = 0; i < count; i++) {
+                final String section = this.section(i);
+                Integer id = sectionToId.get(section);
+                if (null == id) {
+                    id = sectionToId.size();
+                    sectionToId.put(section, id);
+                }
+                ids[i] = id;
+            }
+
+            this.sectionIds = ids;
+            this.sectionIdsBodyLength = length;
+        }
+
+        return ids;
+    }
+
+    /**
+     * The ids computed by {@link #sectionIds()} or null.
+     */
+    private int[] sectionIds;
+
+    /**
+     * The length of the body when {@link #sectionIds} were computed.
+     */
+    private int sectionIdsBodyLength;
+
+    private String section(final int i) {
+        return this.body.substring(
+            this.offsets.get(i),
+            this.end(i)
+        );
+    }
+
+    private int end(final int i) {
+        return i + 1 < this.sectionCount() ?
+            this.offsets.get(i + 1) :
+            this.body.length();
+    }
+
+    /**
+     * Returns the DATA, which is only prefixed by an index header if at least one section was started. If any sections
+     * are identical the body holds each distinct section once, and the header lists the offsets of the distinct sections
+     * followed by each language tag with the id of its section.
+     */
+    String data() throws IOException {
+        final String data;
+
+        final List<String> languageTags = this.languageTags;
+        if (languageTags.isEmpty()) {
+            data = this.body.toString();
+        } else {
+            final int[] ids = this.sectionIds();
+            final int count = languageTags.size();
+            final int distinct = distinct(ids);
+            final boolean deduplicated = distinct < count;
+
+            final StringBuilder header = new StringBuilder();
+            final DataOutput output = StringDataInputDataOutput.output(header::append);
+
+            VarInts.write(
+                (this.stringTable ?
+                    LocaleSectionIndex.STRING_TABLE :
+                    0) |
+                    (deduplicated ?
+                        LocaleSectionIndex.DEDUPLICATED :
+                        0),
+                output
+            );
+            VarInts.write(count, output);
+
+            final CharSequence body;
+            if (deduplicated) {
+                final List<Integer> offsets = this.offsets;
+                final StringBuilder distinctBody = new StringBuilder();
+                distinctBody.append(this.body, 0, offsets.get(0));
+
+                VarInts.write(distinct, output);
+
+                int next = 0;
+                for (int i = 0; i < count; i++) {
+                    if (next == ids[i]) {
+                        VarInts.write(distinctBody.length(), output);
+                        distinctBody.append(this.body, offsets.get(i), this.end(i));
+                        next++;
+                    }
+                }
+
+                for (int i = 0; i < count; i++) {
+                    output.writeUTF(languageTags.get(i));
+                    VarInts.write(ids[i], output);
+                }
+                body = distinctBody;
+            } else {
+                final List<Integer> offsets = this.offsets;
+                for (int i = 0; i < count; i++) {
+                    output.writeUTF(languageTags.get(i));
+                    VarInts.write(offsets.get(i), output);
+                }
+                body = this.body;
+            }
+
+            data = String.valueOf(header.length()) +
+                LocaleSectionIndex.HEADER_LENGTH_SEPARATOR +
+                header +
+                body;
+        }
+
+        return data;
+    }
+
+    private final boolean stringTable;
+
+    private final StringBuilder body = new StringBuilder();
+
+    private final List<String> languageTags = Lists.array();
+
+    private final List<Integer> offsets = Lists.array();
+
+    /**
+     * A new {@link DataOutput} is created for each section, so string tables are not shared between sections.
+     */
+    private DataOutput output;
+
+    // DataOutput.......................................................................................................
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.output.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        this.output.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b,
+                      final int off,
+                      final int len) throws IOException {
+        this.output.write(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(final boolean v) throws IOException {
+        this.output.writeBoolean(v);
+    }
+
+    @Override
+    public void writeByte(final int v) throws IOException {
+        this.output.writeByte(v);
+    }
+
+    @Override
+    public void writeShort(final int v) throws IOException {
+        this.output.writeShort(v);
+    }
+
+    @Override
+    public void writeChar(final int v) throws IOException {
+        this.output.writeChar(v);
+    }
+
+    @Override
+    public void writeInt(final int v) throws IOException {
+        this.output.writeInt(v);
+    }
+
+    @Override
+    public void writeLong(final long v) throws IOException {
+        this.output.writeLong(v);
+    }
+
+    @Override
+    public void writeFloat(final float v) throws IOException {
+        this.output.writeFloat(v);
+    }
+
+    @Override
+    public void writeDouble(final double v) throws IOException {
+        this.output.writeDouble(v);
+    }
+
+    @Override
+    public void writeBytes(final String s) throws IOException {
+        this.output.writeBytes(s);
+    }
+
+    @Override
+    public void writeChars(final String s) throws IOException {
+        this.output.writeChars(s);
+    }
+
+    @Override
+    public void writeUTF(final String s) throws IOException {
+        this.output.writeUTF(s);
+    }
+
+    @Override
+    public String toString() {
+        return this.languageTags.toString();
+    }
+}
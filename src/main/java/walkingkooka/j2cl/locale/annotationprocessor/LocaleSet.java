@@ -0,0 +1,180 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * An immutable {@link java.util.Set} of {@link Locale locales} backed by a {@link BitSet} of ordinals of a shared
+ * universe of locales sorted by language tag. Iteration is in language tag order, and {@link #union(LocaleSet)},
+ * {@link #intersection(LocaleSet)} and {@link #cardinality()} of sets with the same universe are bit operations which
+ * never compute a language tag. Like a {@link java.util.TreeSet} sorted by
+ * {@link LocaleAwareAnnotationProcessorTool#LOCALE_COMPARATOR}, {@link #contains(Object)} matches locales by language tag.
+ */
+public final class LocaleSet extends AbstractSet<Locale> {
+
+    /**
+     * Creates a {@link LocaleSet} holding all the given {@link Locale locales}, which also become its universe.
+     */
+    public static LocaleSet with(final Collection<Locale> locales) {
+        Objects.requireNonNull(locales, "locales");
+
+        return locales instanceof LocaleSet ?
+            (LocaleSet) locales :
+            LocaleSetUniverse.with(locales)
+                .all();
+    }
+
+    /**
+     * Package private factory, the {@link BitSet} must not be modified afterwards.
+     */
+    static LocaleSet with(final LocaleSetUniverse universe,
+                          final BitSet bits) {
+        return new LocaleSet(universe, bits);
+    }
+
+    private LocaleSet(final LocaleSetUniverse universe,
+                      final BitSet bits) {
+        super();
+        this.universe = universe;
+        this.bits = bits;
+        this.cardinality = bits.cardinality();
+    }
+
+    /**
+     * Returns a {@link LocaleSet} with the {@link Locale locales} in either set. Sets with different universes return a
+     * set with a new universe of their combined locales.
+     */
+    public LocaleSet union(final LocaleSet other) {
+        Objects.requireNonNull(other, "other");
+
+        final LocaleSet union;
+        if (this.universe == other.universe) {
+            final BitSet bits = (BitSet) this.bits.clone();
+            bits.or(other.bits);
+            union = this.replace(bits);
+        } else {
+            final List<Locale> locales = Lists.array();
+            locales.addAll(this);
+            locales.addAll(other);
+            union = with(locales);
+        }
+        return union;
+    }
+
+    /**
+     * Returns a {@link LocaleSet} with the {@link Locale locales} present in both sets, sharing the universe of this set.
+     */
+    public LocaleSet intersection(final LocaleSet other) {
+        Objects.requireNonNull(other, "other");
+
+        final BitSet bits = (BitSet) this.bits.clone();
+        if (this.universe == other.universe) {
+            bits.and(other.bits);
+        } else {
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                if (false == other.contains(this.universe.locale(i))) {
+                    bits.clear(i);
+                }
+            }
+        }
+        return this.replace(bits);
+    }
+
+    private LocaleSet replace(final BitSet bits) {
+        return this.bits.equals(bits) ?
+            this :
+            with(this.universe, bits);
+    }
+
+    /**
+     * The number of {@link Locale locales} in this set.
+     */
+    public int cardinality() {
+        return this.cardinality;
+    }
+
+    @Override
+    public boolean contains(final Object other) {
+        final int ordinal = this.universe.ordinal(other);
+        return ordinal >= 0 &&
+            this.bits.get(ordinal);
+    }
+
+    @Override
+    public Iterator<Locale> iterator() {
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return this.next >= 0;
+            }
+
+            @Override
+            public Locale next() {
+                final int ordinal = this.next;
+                if (ordinal < 0) {
+                    throw new NoSuchElementException();
+                }
+                this.next = LocaleSet.this.bits.nextSetBit(ordinal + 1);
+                return LocaleSet.this.universe.locale(ordinal);
+            }
+
+            private int next = LocaleSet.this.bits.nextSetBit(0);
+        };
+    }
+
+    @Override
+    public int size() {
+        return this.cardinality;
+    }
+
+    /**
+     * The universe of all {@link Locale locales} that this set may contain.
+     */
+    final LocaleSetUniverse universe;
+
+    /**
+     * The ordinals of the {@link Locale locales} within the {@link #universe}, which must not be modified.
+     */
+    final BitSet bits;
+
+    private final int cardinality;
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+            (other instanceof LocaleSet && this.universe == ((LocaleSet) other).universe ?
+                this.bits.equals(((LocaleSet) other).bits) :
+                super.equals(other));
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import walkingkooka.collect.map.Maps;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * The {@link Locale locales} sorted by language tag, shared by every {@link LocaleSet} created from them. A
+ * {@link LocaleSet} records the ordinals of its members, so sets from the same universe combine without comparing
+ * language tags.
+ */
+final class LocaleSetUniverse {
+
+    /**
+     * Sorts the {@link Locale locales} computing each language tag once, locales with the same language tag are only
+     * kept once.
+     */
+    static LocaleSetUniverse with(final Collection<Locale> locales) {
+        final Map<String, Locale> tagToLocale = Maps.sorted();
+        for (final Locale locale : locales) {
+            tagToLocale.putIfAbsent(
+                locale.toLanguageTag(),
+                locale
+            );
+        }
+
+        return new LocaleSetUniverse(tagToLocale);
+    }
+
+    private LocaleSetUniverse(final Map<String, Locale> tagToLocale) {
+        super();
+
+        final Locale[] locales = new Locale[tagToLocale.size()];
+        final Map<Locale, Integer> ordinals = Maps.hash();
+        final Map<String, Integer> languageTagOrdinals = Maps.hash();
+
+        int i = 0;
+        for (final Entry<String, Locale> tagAndLocale : tagToLocale.entrySet()) {
+            final Locale locale = tagAndLocale.getValue();
+            locales[i] = locale;
+            ordinals.put(locale, i);
+            languageTagOrdinals.put(tagAndLocale.getKey(), i);
+            i++;
+        }
+
+        this.locales = locales;
+        this.ordinals = ordinals;
+        this.languageTagOrdinals = languageTagOrdinals;
+    }
+
+    /**
+     * Returns a {@link LocaleSet} holding every {@link Locale} in this universe.
+     */
+    LocaleSet all() {
+        final BitSet bits = new BitSet(this.size());
+        bits.set(0, this.size());
+        return LocaleSet.with(this, bits);
+    }
+
+    /**
+     * Returns the ordinal of the {@link Locale} or -1 if it is not a member of this universe. Locales are matched by
+     * language tag like {@link LocaleAwareAnnotationProcessorTool#LOCALE_COMPARATOR}, the language tag is only computed
+     * when the {@link Locale} itself is not a member.
+     */
+    int ordinal(final Object locale) {
+        Integer ordinal = this.ordinals.get(locale);
+        if (null == ordinal && locale instanceof Locale) {
+            ordinal = this.languageTagOrdinals.get(
+                ((Locale) locale).toLanguageTag()
+            );
+        }
+        return null != ordinal ?
+            ordinal :
+            -1;
+    }
+
+    Locale locale(final int ordinal) {
+        return this.locales[ordinal];
+    }
+
+    int size() {
+        return this.locales.length;
+    }
+
+    /**
+     * The locales sorted by language tag, indexed by ordinal.
+     */
+    private final Locale[] locales;
+
+    private final Map<Locale, Integer> ordinals;
+
+    private final Map<String, Integer> languageTagOrdinals;
+
+    @Override
+    public String toString() {
+        return this.size() + " locale(s)";
+    }
+}
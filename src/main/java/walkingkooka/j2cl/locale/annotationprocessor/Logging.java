@@ -17,7 +17,6 @@
 
 package walkingkooka.j2cl.locale.annotationprocessor;
 
-import walkingkooka.text.Indentation;
 import walkingkooka.text.LineEnding;
 import walkingkooka.text.printer.IndentingPrinter;
 import walkingkooka.text.printer.Printers;
@@ -32,14 +31,20 @@ enum Logging {
     NONE {
         @Override
         IndentingPrinter loggingDestination(final StringBuilder comments,
+                                            final boolean cached,
                                             final LocaleAwareAnnotationProcessor filer) {
-            return Printers.sink(LineEnding.NONE)
-                .indenting(Indentation.EMPTY);
+            return LocaleAwareAnnotationProcessorTool.noComments();
         }
 
         @Override
-        String replaceTemplatePlaceholder(final String template, final CharSequence comment) {
-            return replaceTemplatePlaceholder0(template, "");
+        CharSequence dataComment(final CharSequence comment) {
+            return "";
+        }
+
+        @Override
+        void writeLoggingTextFile(final CharSequence comments,
+                                  final LocaleAwareAnnotationProcessor filer) {
+            // nop
         }
     },
 
@@ -49,13 +54,20 @@ enum Logging {
     SLASH_SLASH_COMMENTS {
         @Override
         IndentingPrinter loggingDestination(final StringBuilder comments,
+                                            final boolean cached,
                                             final LocaleAwareAnnotationProcessor filer) {
             return LocaleAwareAnnotationProcessor.comments(Printers.stringBuilder(comments, LineEnding.SYSTEM));
         }
 
         @Override
-        String replaceTemplatePlaceholder(final String template, final CharSequence comment) {
-            return replaceTemplatePlaceholder0(template, comment.toString());
+        CharSequence dataComment(final CharSequence comment) {
+            return comment;
+        }
+
+        @Override
+        void writeLoggingTextFile(final CharSequence comments,
+                                  final LocaleAwareAnnotationProcessor filer) {
+            // nop
         }
     },
 
@@ -65,25 +77,42 @@ enum Logging {
     TXT_FILE {
         @Override
         IndentingPrinter loggingDestination(final StringBuilder comments,
+                                            final boolean cached,
                                             final LocaleAwareAnnotationProcessor filer) throws IOException {
-            return filer.createLoggingTextFile();
+            return cached ?
+                LocaleAwareAnnotationProcessor.indenting(Printers.stringBuilder(comments, LineEnding.SYSTEM)) :
+                filer.createLoggingTextFile();
         }
 
         @Override
-        String replaceTemplatePlaceholder(final String template, final CharSequence comment) {
-            return replaceTemplatePlaceholder0(template, "");
+        CharSequence dataComment(final CharSequence comment) {
+            return "";
+        }
+
+        @Override
+        void writeLoggingTextFile(final CharSequence comments,
+                                  final LocaleAwareAnnotationProcessor filer) throws IOException {
+            filer.writeLoggingTextFile(comments);
         }
     };
 
+    /**
+     * Returns the {@link IndentingPrinter} that receives the logging. When cached the logging is gathered in the
+     * {@link StringBuilder} so it may also be saved, otherwise {@link #TXT_FILE} streams to the logging text file.
+     */
     abstract IndentingPrinter loggingDestination(final StringBuilder comments,
+                                                 final boolean cached,
                                                  final LocaleAwareAnnotationProcessor filer) throws IOException;
 
-    abstract String replaceTemplatePlaceholder(final String template, final CharSequence comment);
+    /**
+     * Returns the value that replaces the <code>$DATA_COMMENT</code> placeholder in templates.
+     */
+    abstract CharSequence dataComment(final CharSequence comment);
 
-    static String replaceTemplatePlaceholder0(final String template,
-                                              final String value) {
-        return LocaleAwareAnnotationProcessor.replace(template,
-            LocaleAwareAnnotationProcessor.DATA_COMMENT,
-            value);
-    }
+    /**
+     * Writes the comments gathered or cached by the {@link #loggingDestination(StringBuilder, boolean, LocaleAwareAnnotationProcessor)}
+     * to the logging text file, only {@link #TXT_FILE} has a file.
+     */
+    abstract void writeLoggingTextFile(final CharSequence comments,
+                                       final LocaleAwareAnnotationProcessor filer) throws IOException;
 }
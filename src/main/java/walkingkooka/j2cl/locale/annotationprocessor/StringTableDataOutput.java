@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.j2cl.locale.StringTableDataInput;
+import walkingkooka.j2cl.locale.VarInts;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A {@link DataOutput} that writes each distinct string given to {@link #writeUTF(String)} once, with repeats written
+ * as a {@link VarInts} back reference. The output must be read using {@link StringTableDataInput}. All other writes
+ * are passed unchanged to the wrapped {@link DataOutput}.
+ */
+final class StringTableDataOutput implements DataOutput {
+
+    static StringTableDataOutput with(final DataOutput output) {
+        Objects.requireNonNull(output, "output");
+
+        return new StringTableDataOutput(output);
+    }
+
+    private StringTableDataOutput(final DataOutput output) {
+        super();
+        this.output = output;
+    }
+
+    @Override
+    public void writeUTF(final String string) throws IOException {
+        final Map<String, Integer> table = this.table;
+        final Integer index = table.get(string);
+
+        if (null == index) {
+            VarInts.write(0, this.output);
+            this.output.writeUTF(string);
+            table.put(string, table.size() + 1);
+        } else {
+            VarInts.write(index, this.output);
+        }
+    }
+
+    /**
+     * The number of distinct strings written.
+     */
+    int size() {
+        return this.table.size();
+    }
+
+    /**
+     * Strings to their one based index, zero is reserved to mark a new string.
+     */
+    private final Map<String, Integer> table = Maps.hash();
+
+    // DataOutput.......................................................................................................
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.output.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        this.output.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b,
+                      final int off,
+                      final int len) throws IOException {
+        this.output.write(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(final boolean v) throws IOException {
+        this.output.writeBoolean(v);
+    }
+
+    @Override
+    public void writeByte(final int v) throws IOException {
+        this.output.writeByte(v);
+    }
+
+    @Override
+    public void writeShort(final int v) throws IOException {
+        this.output.writeShort(v);
+    }
+
+    @Override
+    public void writeChar(final int v) throws IOException {
+        this.output.writeChar(v);
+    }
+
+    @Override
+    public void writeInt(final int v) throws IOException {
+        this.output.writeInt(v);
+    }
+
+    @Override
+    public void writeLong(final long v) throws IOException {
+        this.output.writeLong(v);
+    }
+
+    @Override
+    public void writeFloat(final float v) throws IOException {
+        this.output.writeFloat(v);
+    }
+
+    @Override
+    public void writeDouble(final double v) throws IOException {
+        this.output.writeDouble(v);
+    }
+
+    @Override
+    public void writeBytes(final String s) throws IOException {
+        this.output.writeBytes(s);
+    }
+
+    @Override
+    public void writeChars(final String s) throws IOException {
+        this.output.writeChars(s);
+    }
+
+    private final DataOutput output;
+
+    @Override
+    public String toString() {
+        return this.output.toString();
+    }
+}
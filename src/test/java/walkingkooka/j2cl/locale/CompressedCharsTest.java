@@ -0,0 +1,160 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class CompressedCharsTest implements ClassTesting<CompressedChars> {
+
+    @Test
+    public void testEmpty() {
+        this.compressAndDecompressAndCheck("");
+    }
+
+    @Test
+    public void testShort() {
+        this.compressAndDecompressAndCheck("a");
+    }
+
+    @Test
+    public void testNoRepeats() {
+        this.compressAndDecompressAndCheck("abcdefghijklmnopqrstuvwxyz");
+    }
+
+    @Test
+    public void testRepeats() {
+        final String text = "en-AU,en,AU;en-GB,en,GB;en-NZ,en,NZ;en-US,en,US;";
+        final String compressed = this.compressAndDecompressAndCheck(text);
+        assertTrue(compressed.length() < text.length(), () -> "compressed " + compressed.length() + " text " + text.length());
+    }
+
+    @Test
+    public void testOverlappingCopy() {
+        final String text = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa";
+        final String compressed = this.compressAndDecompressAndCheck(text);
+        assertTrue(compressed.length() < 8, () -> "compressed " + compressed.length());
+    }
+
+    @Test
+    public void testDigitChars() {
+        this.compressAndDecompressAndCheck("(G]|(G]|(G]|(G]|");
+    }
+
+    @Test
+    public void testNumberDigitsNeedNoEscaping() {
+        final Random random = new Random(1);
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            final int length = random.nextInt(80);
+            for (int j = 0; j < length; j++) {
+                text.append((char) ('a' + random.nextInt(26)));
+            }
+            text.append("en-AU,en,AU;".substring(0, random.nextInt(12)));
+        }
+
+        final String compressed = this.compressAndDecompressAndCheck(text.toString());
+        for (final char c : new char[]{'"', '\'', '\\'}) {
+            assertEquals(-1, compressed.indexOf(c), () -> "compressed includes " + c);
+        }
+    }
+
+    @Test
+    public void testNonAscii() {
+        this.compressAndDecompressAndCheck("\u0000\u0001ÿ中𐀀￿\u0000\u0001ÿ中𐀀￿");
+    }
+
+    @Test
+    public void testLongRandom() {
+        final Random random = new Random(1);
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200000; i++) {
+            text.append((char) ('a' + random.nextInt(4)));
+        }
+        this.compressAndDecompressAndCheck(text.toString());
+    }
+
+    @Test
+    public void testDataInputDataOutput() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final DataOutput output = StringDataInputDataOutput.output(text::append);
+        for (int i = 0; i < 100; i++) {
+            output.writeUTF("en-AU");
+            output.writeInt(i);
+        }
+
+        final DataInput input = StringDataInputDataOutput.input(
+            CompressedChars.decompress(
+                CompressedChars.compress(text)
+            )
+        );
+        for (int i = 0; i < 100; i++) {
+            assertEquals("en-AU", input.readUTF());
+            assertEquals(i, input.readInt());
+        }
+    }
+
+    private String compressAndDecompressAndCheck(final String text) {
+        final String compressed = CompressedChars.compress(text);
+        assertEquals(text, CompressedChars.decompress(compressed), () -> "compress then decompress " + compressed);
+        return compressed;
+    }
+
+    @Test
+    public void testDecompressInvalidDigitFails() {
+        assertThrows(IllegalArgumentException.class, () -> CompressedChars.decompress("\u0000"));
+    }
+
+    @Test
+    public void testDecompressMissingDigitFails() {
+        assertThrows(IllegalArgumentException.class, () -> CompressedChars.decompress("]"));
+    }
+
+    @Test
+    public void testDecompressLiteralTooLongFails() {
+        assertThrows(IllegalArgumentException.class, () -> CompressedChars.decompress(",a"));
+    }
+
+    @Test
+    public void testDecompressInvalidDistanceFails() {
+        assertThrows(IllegalArgumentException.class, () -> CompressedChars.decompress("*a))"));
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CompressedChars> type() {
+        return CompressedChars.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
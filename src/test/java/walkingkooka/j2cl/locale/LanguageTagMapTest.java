@@ -0,0 +1,263 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class LanguageTagMapTest implements ClassTesting<LanguageTagMap>,
+    ToStringTesting<LanguageTagMap<String>> {
+
+    @Test
+    public void testPutNullTagFails() {
+        assertThrows(NullPointerException.class, () -> LanguageTagMap.empty().put(null, "value"));
+    }
+
+    @Test
+    public void testPutNullValueFails() {
+        assertThrows(NullPointerException.class, () -> LanguageTagMap.empty().put(WalkingkookaLanguageTag.parse("en"), null));
+    }
+
+    @Test
+    public void testPutUnpackableFails() {
+        assertThrows(IllegalStateException.class, () -> LanguageTagMap.empty().put(WalkingkookaLanguageTag.parse("abcdefgh-AU"), "value"));
+    }
+
+    @Test
+    public void testPutInvalidKeyFails() {
+        assertThrows(IllegalArgumentException.class, () -> LanguageTagMap.empty().put(WalkingkookaLanguageTag.NO_KEY, "value"));
+    }
+
+    @Test
+    public void testGetNullFails() {
+        assertThrows(NullPointerException.class, () -> LanguageTagMap.empty().get(null));
+    }
+
+    @Test
+    public void testPutGet() {
+        final LanguageTagMap<String> map = LanguageTagMap.empty();
+        assertNull(map.put(WalkingkookaLanguageTag.parse("en-AU"), "1"));
+
+        assertEquals("1", map.get(WalkingkookaLanguageTag.parse("en-AU")), "en-AU");
+        assertNull(map.get(WalkingkookaLanguageTag.parse("en")), "en");
+        assertEquals(1, map.size(), "size");
+    }
+
+    @Test
+    public void testPutReplaces() {
+        final LanguageTagMap<String> map = LanguageTagMap.empty();
+        final WalkingkookaLanguageTag tag = WalkingkookaLanguageTag.parse("en-AU");
+
+        map.put(tag, "1");
+        assertEquals("1", map.put(tag, "2"), "previous");
+        assertEquals("2", map.get(tag), "get");
+        assertEquals(1, map.size(), "size");
+    }
+
+    @Test
+    public void testPutGetRoot() {
+        final LanguageTagMap<String> map = LanguageTagMap.empty();
+        final WalkingkookaLanguageTag root = WalkingkookaLanguageTag.parse("");
+        map.put(root, "root");
+
+        assertEquals("root", map.get(root));
+    }
+
+    @Test
+    public void testGetUnpackable() {
+        assertNull(LanguageTagMap.empty().get(WalkingkookaLanguageTag.parse("abcdefgh-AU")));
+    }
+
+    @Test
+    public void testPutGetAll() {
+        final LanguageTagMap<WalkingkookaLanguageTag> map = LanguageTagMap.empty();
+        int size = 0;
+
+        for (final String languageTag : WalkingkookaLanguageTag.all("*")) {
+            final WalkingkookaLanguageTag tag = WalkingkookaLanguageTag.parse(languageTag);
+            if (WalkingkookaLanguageTag.NO_KEY != tag.key) {
+                map.put(tag, tag);
+                size++;
+            }
+        }
+
+        assertEquals(size, map.size(), "size");
+
+        for (final String languageTag : WalkingkookaLanguageTag.all("*")) {
+            final WalkingkookaLanguageTag tag = WalkingkookaLanguageTag.parse(languageTag);
+            if (WalkingkookaLanguageTag.NO_KEY != tag.key) {
+                assertEquals(tag, map.get(tag), () -> "get " + tag);
+                assertEquals(tag, map.get(tag.toKey()), () -> "get key " + tag);
+            }
+        }
+    }
+
+    // getWithFallback..................................................................................................
+
+    @Test
+    public void testGetWithFallbackExact() {
+        this.getWithFallbackAndCheck("en-AU", "en-AU");
+    }
+
+    @Test
+    public void testGetWithFallbackDropsScript() {
+        this.getWithFallbackAndCheck("sr-Cyrl-RS", "sr-RS");
+    }
+
+    @Test
+    public void testGetWithFallbackDropsVariant() {
+        this.getWithFallbackAndCheck("ca-ES-VALENCIA", "ca-ES");
+    }
+
+    @Test
+    public void testGetWithFallbackDropsScriptAndVariant() {
+        this.getWithFallbackAndCheck("sr-Latn-RS-VALENCIA", "sr-RS");
+    }
+
+    @Test
+    public void testGetWithFallbackLanguage() {
+        this.getWithFallbackAndCheck("en-NZ", "en");
+    }
+
+    @Test
+    public void testGetWithFallbackLanguageFromScript() {
+        this.getWithFallbackAndCheck("en-Latn", "en");
+    }
+
+    @Test
+    public void testGetWithFallbackMissing() {
+        this.getWithFallbackAndCheck("fr-FR", null);
+    }
+
+    @Test
+    public void testGetWithFallbackUnpackable() {
+        this.getWithFallbackAndCheck("abcdefgh-AU", null);
+    }
+
+    @Test
+    public void testGetWithFallbackOldLanguage() {
+        final LanguageTagMap<String> map = LanguageTagMap.empty();
+        map.put(WalkingkookaLanguageTag.parse("he-IL"), "he-IL");
+
+        assertEquals("he-IL", map.getWithFallback(WalkingkookaLanguageTag.parse("iw-IL")), "iw-IL");
+        assertEquals("he-IL", map.getWithFallback(WalkingkookaLanguageTag.parse("he-IL")), "he-IL");
+    }
+
+    @Test
+    public void testGetWithFallbackOldLanguageOnly() {
+        final LanguageTagMap<String> map = LanguageTagMap.empty();
+        map.put(WalkingkookaLanguageTag.parse("iw"), "iw");
+
+        assertEquals("iw", map.getWithFallback(WalkingkookaLanguageTag.parse("iw-IL")), "iw-IL");
+    }
+
+    @Test
+    public void testGetWithFallbackExplicitTag() {
+        final WalkingkookaLanguageTag tag = WalkingkookaLanguageTag.with("no-NO-NY", "nn", "NO", "");
+
+        final LanguageTagMap<String> map = LanguageTagMap.empty();
+        map.put(tag, "no-NO-NY");
+
+        assertEquals("no-NO-NY", map.getWithFallback(tag));
+    }
+
+    @Test
+    public void testGetWithFallbackExplicitTagLanguage() {
+        final LanguageTagMap<String> map = LanguageTagMap.empty();
+        map.put(WalkingkookaLanguageTag.parse("nn"), "nn");
+
+        assertEquals("nn", map.getWithFallback(WalkingkookaLanguageTag.with("no-NO-NY", "nn", "NO", "")));
+    }
+
+    @Test
+    public void testGetWithFallbackSameAsTryLookup() {
+        final LanguageTagMap<String> map = this.createMap();
+        final Set<String> values = Sets.of(
+            "en",
+            "en-AU",
+            "ca-ES",
+            "sr-RS",
+            "sr-Latn-RS",
+            "he-IL",
+            "iw"
+        );
+
+        for (final String tag : new String[]{"en", "en-AU", "en-NZ", "en-Latn-AU", "ca-ES-VALENCIA", "sr-Latn-RS", "sr-Cyrl-RS", "fr", "iw-IL", "he-IL", "iw-Hebr-IL", "iw-US", "he-US"}) {
+            final WalkingkookaLanguageTag languageTag = WalkingkookaLanguageTag.parse(tag);
+
+            assertEquals(
+                languageTag.tryLookup(t -> values.contains(t) ? t : null).orElse(null),
+                map.getWithFallback(languageTag),
+                () -> "getWithFallback " + tag
+            );
+        }
+    }
+
+    private void getWithFallbackAndCheck(final String tag,
+                                         final String expected) {
+        assertEquals(
+            expected,
+            this.createMap().getWithFallback(WalkingkookaLanguageTag.parse(tag)),
+            () -> "getWithFallback " + tag
+        );
+    }
+
+    private LanguageTagMap<String> createMap() {
+        final LanguageTagMap<String> map = LanguageTagMap.empty();
+        for (final String tag : new String[]{"en", "en-AU", "ca-ES", "sr-RS", "sr-Latn-RS", "he-IL", "iw"}) {
+            map.put(WalkingkookaLanguageTag.parse(tag), tag);
+        }
+        return map;
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        final LanguageTagMap<String> map = LanguageTagMap.empty();
+        map.put(WalkingkookaLanguageTag.parse("en-AU"), "1");
+
+        this.toStringAndCheck(map, "{en-AU=1}");
+    }
+
+    @Test
+    public void testToStringEmpty() {
+        this.toStringAndCheck(LanguageTagMap.empty(), "{}");
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<LanguageTagMap> type() {
+        return LanguageTagMap.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
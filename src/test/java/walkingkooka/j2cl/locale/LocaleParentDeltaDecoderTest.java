@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class LocaleParentDeltaDecoderTest implements ClassTesting<LocaleParentDeltaDecoder> {
+
+    @Test
+    public void testMaskCount() {
+        this.checkEquals(1, LocaleParentDeltaDecoder.maskCount(1), "1");
+        this.checkEquals(1, LocaleParentDeltaDecoder.maskCount(31), "31");
+        this.checkEquals(2, LocaleParentDeltaDecoder.maskCount(32), "32");
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        final StringBuilder data = new StringBuilder();
+        final DataOutput output = StringDataInputDataOutput.output(data::append);
+        VarInts.write(2, output); // field count
+        VarInts.write(2, output); // record count
+
+        output.writeUTF("en");
+        VarInts.write(0, output);
+        VarInts.write(3, output);
+        output.writeUTF("a");
+        output.writeUTF("b");
+
+        output.writeUTF("en-AU");
+        VarInts.write(1, output);
+        VarInts.write(2, output);
+        output.writeUTF("c");
+
+        final Map<String, String[]> records = LocaleParentDeltaDecoder.read(
+            StringDataInputDataOutput.input(data.toString())
+        );
+        assertArrayEquals(new String[]{"a", "b"}, records.get("en"), "en");
+        assertArrayEquals(new String[]{"a", "c"}, records.get("en-AU"), "en-AU");
+    }
+
+    @Test
+    public void testReadInvalidParentFails() throws IOException {
+        final StringBuilder data = new StringBuilder();
+        final DataOutput output = StringDataInputDataOutput.output(data::append);
+        VarInts.write(1, output);
+        VarInts.write(1, output);
+        output.writeUTF("en");
+        VarInts.write(1, output);
+
+        final IOException thrown = assertThrows(
+            IOException.class,
+            () -> LocaleParentDeltaDecoder.read(StringDataInputDataOutput.input(data.toString()))
+        );
+        this.checkEquals("Invalid parent 1 for \"en\"", thrown.getMessage());
+    }
+
+    @Test
+    public void testReadMissingFieldFails() throws IOException {
+        final StringBuilder data = new StringBuilder();
+        final DataOutput output = StringDataInputDataOutput.output(data::append);
+        VarInts.write(2, output);
+        VarInts.write(1, output);
+        output.writeUTF("en");
+        VarInts.write(0, output);
+        VarInts.write(1, output);
+        output.writeUTF("a");
+
+        final IOException thrown = assertThrows(
+            IOException.class,
+            () -> LocaleParentDeltaDecoder.read(StringDataInputDataOutput.input(data.toString()))
+        );
+        this.checkEquals("Missing field 1 for \"en\"", thrown.getMessage());
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<LocaleParentDeltaDecoder> type() {
+        return LocaleParentDeltaDecoder.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
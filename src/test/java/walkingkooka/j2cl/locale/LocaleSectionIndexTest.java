@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class LocaleSectionIndexTest implements ClassTesting<LocaleSectionIndex> {
+
+    @Test
+    public void testWithNullFails() {
+        assertThrows(NullPointerException.class, () -> LocaleSectionIndex.with(null));
+    }
+
+    @Test
+    public void testWithMissingHeaderLengthFails() {
+        this.withFails("abc", "Missing header length");
+    }
+
+    @Test
+    public void testWithInvalidHeaderLengthFails() {
+        this.withFails("x;abc", "Invalid header length \"x\"");
+    }
+
+    @Test
+    public void testWithHeaderLengthTooLongFails() {
+        this.withFails("99;abc", "Invalid header length 99");
+    }
+
+    private void withFails(final String data,
+                           final String message) {
+        final IOException thrown = assertThrows(IOException.class, () -> LocaleSectionIndex.with(data));
+        this.checkEquals(message, thrown.getMessage());
+    }
+
+    @Test
+    public void testSectionUnknownFails() throws IOException {
+        final LocaleSectionIndex index = this.index();
+        assertThrows(IllegalArgumentException.class, () -> index.section("fr"));
+    }
+
+    @Test
+    public void testSection() throws IOException {
+        final LocaleSectionIndex index = this.index();
+        assertEquals(true, index.contains("en"), "contains en");
+        assertEquals(false, index.contains("fr"), "contains fr");
+        assertEquals(2, index.section("en-AU").readInt(), "en-AU");
+        assertEquals(1, index.section("en").readInt(), "en");
+    }
+
+    @Test
+    public void testSectionId() throws IOException {
+        final LocaleSectionIndex index = this.index();
+        this.checkEquals(0, index.sectionId("en"), "en");
+        this.checkEquals(1, index.sectionId("en-AU"), "en-AU");
+        this.checkEquals(2, index.sectionCount(), "sectionCount");
+    }
+
+    @Test
+    public void testSectionIdUnknownFails() throws IOException {
+        final LocaleSectionIndex index = this.index();
+        assertThrows(IllegalArgumentException.class, () -> index.sectionId("fr"));
+    }
+
+    @Test
+    public void testSectionDeduplicated() throws IOException {
+        final LocaleSectionIndex index = this.deduplicated(1);
+        assertEquals(1, index.section("en").readInt(), "en");
+        assertEquals(2, index.section("en-AU").readInt(), "en-AU");
+        assertEquals(2, index.section("en-NZ").readInt(), "en-NZ");
+        this.checkEquals(index.sectionId("en-AU"), index.sectionId("en-NZ"), "sectionId");
+        this.checkEquals(2, index.sectionCount(), "sectionCount");
+        this.checkEquals("en,en-AU,en-NZ", index.toString());
+    }
+
+    @Test
+    public void testSectionDeduplicatedInvalidIdFails() {
+        final IOException thrown = assertThrows(IOException.class, () -> this.deduplicated(2));
+        this.checkEquals("Invalid section id 2 for \"en-NZ\"", thrown.getMessage());
+    }
+
+    private LocaleSectionIndex deduplicated(final int enNzId) throws IOException {
+        final StringBuilder body = new StringBuilder();
+        final DataOutput bodyOutput = StringDataInputDataOutput.output(body::append);
+        bodyOutput.writeInt(1);
+        final int second = body.length();
+        bodyOutput.writeInt(2);
+
+        final StringBuilder header = new StringBuilder();
+        final DataOutput headerOutput = StringDataInputDataOutput.output(header::append);
+        VarInts.write(LocaleSectionIndex.DEDUPLICATED, headerOutput);
+        VarInts.write(3, headerOutput);
+        VarInts.write(2, headerOutput);
+        VarInts.write(0, headerOutput);
+        VarInts.write(second, headerOutput);
+        headerOutput.writeUTF("en");
+        VarInts.write(0, headerOutput);
+        headerOutput.writeUTF("en-AU");
+        VarInts.write(1, headerOutput);
+        headerOutput.writeUTF("en-NZ");
+        VarInts.write(enNzId, headerOutput);
+
+        return LocaleSectionIndex.with(header.length() + ";" + header + body);
+    }
+
+    @Test
+    public void testToString() throws IOException {
+        this.checkEquals("en,en-AU", this.index().toString());
+    }
+
+    private LocaleSectionIndex index() throws IOException {
+        final StringBuilder body = new StringBuilder();
+        final DataOutput bodyOutput = StringDataInputDataOutput.output(body::append);
+        bodyOutput.writeInt(1);
+        final int second = body.length();
+        bodyOutput.writeInt(2);
+
+        final StringBuilder header = new StringBuilder();
+        final DataOutput headerOutput = StringDataInputDataOutput.output(header::append);
+        VarInts.write(0, headerOutput);
+        VarInts.write(2, headerOutput);
+        headerOutput.writeUTF("en");
+        VarInts.write(0, headerOutput);
+        headerOutput.writeUTF("en-AU");
+        VarInts.write(second, headerOutput);
+
+        return LocaleSectionIndex.with(header.length() + ";" + header + body);
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<LocaleSectionIndex> type() {
+        return LocaleSectionIndex.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
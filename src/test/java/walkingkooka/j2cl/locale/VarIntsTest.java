@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class VarIntsTest implements ClassTesting<VarInts> {
+
+    @Test
+    public void testWriteNegativeFails() {
+        final StringBuilder text = new StringBuilder();
+        assertThrows(IllegalArgumentException.class, () -> VarInts.write(-1, StringDataInputDataOutput.output(text::append)));
+    }
+
+    @Test
+    public void testZero() throws IOException {
+        this.writeReadAndCheck(0);
+    }
+
+    @Test
+    public void testOneByteMax() throws IOException {
+        this.writeReadAndCheck(127);
+    }
+
+    @Test
+    public void testTwoBytes() throws IOException {
+        this.writeReadAndCheck(128);
+    }
+
+    @Test
+    public void testMax() throws IOException {
+        this.writeReadAndCheck(Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testSeveral() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final DataOutput out = StringDataInputDataOutput.output(text::append);
+        VarInts.write(1, out);
+        VarInts.write(300, out);
+        VarInts.write(70000, out);
+
+        final DataInput in = StringDataInputDataOutput.input(text.toString());
+        assertEquals(1, VarInts.read(in));
+        assertEquals(300, VarInts.read(in));
+        assertEquals(70000, VarInts.read(in));
+    }
+
+    @Test
+    public void testReadTooManyBytesFails() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final DataOutput out = StringDataInputDataOutput.output(text::append);
+        for (int i = 0; i < 6; i++) {
+            out.writeByte(0xFF);
+        }
+
+        assertThrows(IOException.class, () -> VarInts.read(StringDataInputDataOutput.input(text.toString())));
+    }
+
+    private void writeReadAndCheck(final int value) throws IOException {
+        final StringBuilder text = new StringBuilder();
+        VarInts.write(value, StringDataInputDataOutput.output(text::append));
+
+        assertEquals(value, VarInts.read(StringDataInputDataOutput.input(text.toString())), () -> "write/read " + value);
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<VarInts> type() {
+        return VarInts.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
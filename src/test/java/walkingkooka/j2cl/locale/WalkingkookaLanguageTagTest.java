@@ -19,6 +19,7 @@ package walkingkooka.j2cl.locale;
 
 import org.junit.jupiter.api.Test;
 import walkingkooka.HashCodeEqualsDefinedTesting2;
+import walkingkooka.NeverError;
 import walkingkooka.ToStringTesting;
 import walkingkooka.collect.list.Lists;
 import walkingkooka.collect.map.Maps;
@@ -40,9 +41,12 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -113,6 +117,61 @@ public final class WalkingkookaLanguageTagTest implements ClassTesting<Walkingko
         this.testTrue("A*,B*", "B2");
     }
 
+    @Test
+    public void testFilterEndsWildcardIgnoresCase() {
+        this.testTrue("EN*", "en-AU");
+    }
+
+    @Test
+    public void testFilterExactIgnoresCase() {
+        this.testTrue("EN-AU", "en-au");
+    }
+
+    @Test
+    public void testFilterExclude() {
+        this.testFalse("EN*,!EN-GB", "en-GB");
+    }
+
+    @Test
+    public void testFilterExclude2() {
+        this.testTrue("EN*,!EN-GB", "en-AU");
+    }
+
+    @Test
+    public void testFilterExcludeExactOnly() {
+        this.testTrue("EN*,!EN-GB", "en-GB-oxendict");
+    }
+
+    @Test
+    public void testFilterExcludeWildcard() {
+        this.testFalse("EN*,!EN-GB*", "en-GB-oxendict");
+    }
+
+    @Test
+    public void testFilterExcludeBeatsWildcard() {
+        this.testFalse("*,!FR*", "fr-CA");
+    }
+
+    @Test
+    public void testFilterOnlyExclude() {
+        this.testTrue("!FR*", "en");
+    }
+
+    @Test
+    public void testFilterOnlyExclude2() {
+        this.testFalse("!FR*", "fr");
+    }
+
+    @Test
+    public void testFilterOnlyCommasFails() {
+        assertThrows(IllegalArgumentException.class, () -> WalkingkookaLanguageTag.filter(","));
+    }
+
+    @Test
+    public void testFilterExcludeInvalidWildcardFails() {
+        assertThrows(IllegalArgumentException.class, () -> WalkingkookaLanguageTag.filter("EN,!*FR"));
+    }
+
     private void testTrue(final String filter, final String value) {
         this.testTrue(WalkingkookaLanguageTag.filter(filter), value);
     }
@@ -136,6 +195,16 @@ public final class WalkingkookaLanguageTagTest implements ClassTesting<Walkingko
         this.toStringAndCheck(WalkingkookaLanguageTag.filter("A,B*,C*"), "A,B*,C*");
     }
 
+    @Test
+    public void testFilterToStringWildcardAndExclusions() {
+        this.toStringAndCheck(WalkingkookaLanguageTag.filter("A,*,!B,!C*"), "*,!B,!C*");
+    }
+
+    @Test
+    public void testFilterToStringExclusions() {
+        this.toStringAndCheck(WalkingkookaLanguageTag.filter("A*,!AB"), "A*,!AB");
+    }
+
     // .................................................................................................................
 
     private final static WalkingkookaLanguageTag ROOT = WalkingkookaLanguageTag.with("", "", "", "");
@@ -256,6 +325,115 @@ public final class WalkingkookaLanguageTagTest implements ClassTesting<Walkingko
             WalkingkookaLanguageTag.with("az-Cyrl-AZ", "az", "AZ", "", "Cyrl"));
     }
 
+    // encode.........................................................................................................
+
+    @Test
+    public void testEncodeNullTagsFails() {
+        final StringBuilder text = new StringBuilder();
+        assertThrows(NullPointerException.class, () -> WalkingkookaLanguageTag.encode(null, StringDataInputDataOutput.output(text::append)));
+    }
+
+    @Test
+    public void testEncodeNullDataOutputFails() {
+        assertThrows(NullPointerException.class, () -> WalkingkookaLanguageTag.encode(Lists.of(), null));
+    }
+
+    @Test
+    public void testEncodeDecodeEmpty() throws IOException {
+        this.encodeDecodeAndCheck(Lists.of());
+    }
+
+    @Test
+    public void testEncodeDecodeSeveral() throws IOException {
+        this.encodeDecodeAndCheck(
+            Lists.of(
+                WalkingkookaLanguageTag.parse("az"),
+                WalkingkookaLanguageTag.parse("az-Cyrl"),
+                WalkingkookaLanguageTag.parse("az-Cyrl-AZ"),
+                WalkingkookaLanguageTag.parse("az-Latn-AZ"),
+                WalkingkookaLanguageTag.parse("en-001"),
+                WalkingkookaLanguageTag.parse("no-NO-NY")
+            )
+        );
+    }
+
+    @Test
+    public void testEncodeDecodeExplicitTag() throws IOException {
+        this.encodeDecodeAndCheck(
+            Lists.of(
+                WalkingkookaLanguageTag.with("nn-NO", "no", "NO", "NY"),
+                WalkingkookaLanguageTag.with("CA-FR", "ca", "FR", "")
+            )
+        );
+    }
+
+    @Test
+    public void testEncodeDecodeDuplicates() throws IOException {
+        this.encodeDecodeAndCheck(
+            Lists.of(
+                WalkingkookaLanguageTag.parse("en-AU"),
+                WalkingkookaLanguageTag.parse("en-AU")
+            )
+        );
+    }
+
+    @Test
+    public void testEncodeDecodeAll() throws IOException {
+        this.encodeDecodeAndCheck(
+            WalkingkookaLanguageTag.all("*")
+                .stream()
+                .map(WalkingkookaLanguageTag::parse)
+                .collect(Collectors.toList())
+        );
+    }
+
+    @Test
+    public void testEncodeSmallerThanLegacyEncoding() throws IOException {
+        final List<WalkingkookaLanguageTag> tags = WalkingkookaLanguageTag.all("*")
+            .stream()
+            .map(WalkingkookaLanguageTag::parse)
+            .collect(Collectors.toList());
+
+        final StringBuilder legacy = new StringBuilder();
+        final DataOutput legacyOut = StringDataInputDataOutput.output(legacy::append);
+        legacyOut.writeInt(tags.size());
+        for (final WalkingkookaLanguageTag tag : tags) {
+            legacyOut.writeUTF(tag.toLanguageTag() + "," + tag.language() + "," + tag.country() + "," + tag.variant() + "," + tag.script());
+        }
+
+        final StringBuilder encoded = new StringBuilder();
+        WalkingkookaLanguageTag.encode(tags, StringDataInputDataOutput.output(encoded::append));
+
+        assertTrue(encoded.length() * 2 < legacy.length(), () -> "encoded " + encoded.length() + " legacy " + legacy.length());
+    }
+
+    @Test
+    public void testDecodeUnsupportedVersionFails() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        StringDataInputDataOutput.output(text::append)
+            .writeInt(-2);
+
+        assertThrows(IOException.class, () -> WalkingkookaLanguageTag.decode(StringDataInputDataOutput.input(text.toString())));
+    }
+
+    private void encodeDecodeAndCheck(final List<WalkingkookaLanguageTag> tags) throws IOException {
+        final StringBuilder text = new StringBuilder();
+        WalkingkookaLanguageTag.encode(tags, StringDataInputDataOutput.output(text::append));
+
+        final List<WalkingkookaLanguageTag> decoded = WalkingkookaLanguageTag.decode(StringDataInputDataOutput.input(text.toString()));
+        assertEquals(tags, decoded, "decode");
+        assertEquals(
+            tags.stream()
+                .map(WalkingkookaLanguageTag::toLanguageTag)
+                .collect(Collectors.toList()),
+            decoded.stream()
+                .map(WalkingkookaLanguageTag::toLanguageTag)
+                .collect(Collectors.toList()),
+            "decode toLanguageTag"
+        );
+        assertEquals(tags, WalkingkookaLanguageTag.decodeLazy(StringDataInputDataOutput.input(text.toString())), "decodeLazy");
+    }
+
     private void decodeAndCheck(final CharSequence encoded,
                                 final WalkingkookaLanguageTag... expected) throws IOException {
         this.decodeAndCheck0(encoded, Lists.of(expected));
@@ -267,6 +445,55 @@ public final class WalkingkookaLanguageTagTest implements ClassTesting<Walkingko
         assertEquals(toString(expected),
             toString(WalkingkookaLanguageTag.decode(StringDataInputDataOutput.input(encoded.toString()))),
             "decode " + encoded);
+        assertEquals(toString(expected),
+            toString(WalkingkookaLanguageTag.decodeLazy(StringDataInputDataOutput.input(encoded.toString()))),
+            "decodeLazy " + encoded);
+    }
+
+    @Test
+    public void testDecodeTrailingSeparators() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final DataOutput out = StringDataInputDataOutput.output(text::append);
+        out.writeInt(2);
+        out.writeUTF("EN,,");
+        out.writeUTF("CA-FR,CA,FR,,");
+
+        this.decodeAndCheck(text,
+            WalkingkookaLanguageTag.with("EN", "EN", "", ""),
+            WalkingkookaLanguageTag.with("CA-FR", "ca", "FR", ""));
+    }
+
+    @Test
+    public void testDecodeTooManyComponentsFails() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final DataOutput out = StringDataInputDataOutput.output(text::append);
+        out.writeInt(1);
+        out.writeUTF("az-Cyrl-AZ,az,AZ,,Cyrl,X");
+
+        assertThrows(NeverError.class, () -> WalkingkookaLanguageTag.decode(StringDataInputDataOutput.input(text.toString())));
+    }
+
+    @Test
+    public void testDecodeLazySameInstance() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final DataOutput out = StringDataInputDataOutput.output(text::append);
+        out.writeInt(1);
+        out.writeUTF("EN");
+
+        final List<WalkingkookaLanguageTag> decoded = WalkingkookaLanguageTag.decodeLazy(StringDataInputDataOutput.input(text.toString()));
+        assertEquals(1, decoded.size(), "size");
+        assertSame(decoded.get(0), decoded.get(0));
+    }
+
+    @Test
+    public void testDecodeLazyImmutable() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final DataOutput out = StringDataInputDataOutput.output(text::append);
+        out.writeInt(1);
+        out.writeUTF("EN");
+
+        final List<WalkingkookaLanguageTag> decoded = WalkingkookaLanguageTag.decodeLazy(StringDataInputDataOutput.input(text.toString()));
+        assertThrows(UnsupportedOperationException.class, () -> decoded.add(WalkingkookaLanguageTag.parse("fr")));
     }
 
     private static String toString(final List<WalkingkookaLanguageTag> tags) {
@@ -326,6 +553,15 @@ public final class WalkingkookaLanguageTagTest implements ClassTesting<Walkingko
                 .collect(Collectors.toCollection(() -> SortedSets.tree(String.CASE_INSENSITIVE_ORDER))));
     }
 
+    @Test
+    public void testAllEnWildcardExcludeEnGb() {
+        this.allAndCheck("EN*,!EN-GB",
+            WalkingkookaLanguageTag.all()
+                .stream()
+                .filter(t -> CaseSensitivity.INSENSITIVE.startsWith(t, "EN") && false == t.equalsIgnoreCase("EN-GB"))
+                .collect(Collectors.toCollection(() -> SortedSets.tree(String.CASE_INSENSITIVE_ORDER))));
+    }
+
     @Test
     public void testAllEnWildcardFr() {
         this.allAndCheck("EN*,FR",
@@ -369,6 +605,70 @@ public final class WalkingkookaLanguageTagTest implements ClassTesting<Walkingko
                 .collect(Collectors.joining("\n")));
     }
 
+    @Test
+    public void testAllCached() {
+        assertSame(WalkingkookaLanguageTag.all("EN*"), WalkingkookaLanguageTag.all("EN*"));
+    }
+
+    @Test
+    public void testAllCachedDifferentCase() {
+        assertSame(WalkingkookaLanguageTag.all("EN*,fr"), WalkingkookaLanguageTag.all("en*,FR"));
+    }
+
+    @Test
+    public void testAllCachedDifferentOrderAndEmptyTokens() {
+        assertSame(WalkingkookaLanguageTag.all("EN*,FR"), WalkingkookaLanguageTag.all("FR,,EN*,FR"));
+    }
+
+    @Test
+    public void testAllInvalidateAll() {
+        final Set<String> all = WalkingkookaLanguageTag.all("EN*");
+        WalkingkookaLanguageTag.invalidateAll();
+
+        final Set<String> all2 = WalkingkookaLanguageTag.all("EN*");
+        assertNotSame(all, all2);
+        assertEquals(all, all2);
+    }
+
+    @Test
+    public void testAllSorted() {
+        final List<String> all = Lists.array();
+        all.addAll(WalkingkookaLanguageTag.all());
+
+        final List<String> sorted = Lists.array();
+        sorted.addAll(all);
+        sorted.sort(Comparator.naturalOrder());
+
+        assertEquals(sorted, all);
+    }
+
+    @Test
+    public void testAllParallelSameAsSequential() {
+        final Locale[] locales = Locale.getAvailableLocales();
+
+        final List<String> sequential = Lists.array();
+        for (final Locale locale : locales) {
+            final String[] languageTagAndAlternative = WalkingkookaLanguageTag.available(locale);
+            if (null != languageTagAndAlternative) {
+                sequential.add(Arrays.toString(languageTagAndAlternative));
+            }
+        }
+
+        assertEquals(
+            sequential,
+            Arrays.stream(ForkJoinPool.commonPool().invoke(WalkingkookaLanguageTagAvailableTask.with(locales)))
+                .map(Arrays::toString)
+                .collect(Collectors.toList())
+        );
+    }
+
+    @Test
+    public void testAllImmutable() {
+        final Set<String> all = WalkingkookaLanguageTag.all("EN");
+        assertThrows(UnsupportedOperationException.class, () -> all.add("FR"));
+        assertThrows(UnsupportedOperationException.class, all::clear);
+    }
+
     @Test
     public void testHe() {
         final Set<String> all = WalkingkookaLanguageTag.all();
@@ -490,6 +790,87 @@ public final class WalkingkookaLanguageTagTest implements ClassTesting<Walkingko
         this.parseAndCheck("nn-NO", "nn", "NO", "", "");
     }
 
+    @Test
+    public void testParseLanguageScriptLowerCaseCountryLowerCase() {
+        this.parseAndCheck("bs-latn-ba", "bs", "BA", "", "Latn");
+    }
+
+    @Test
+    public void testParseExtlang() {
+        this.parseAndCheck("zh-yue-HK", "yue", "HK", "", "");
+    }
+
+    @Test
+    public void testParseExtlangWithoutCountry() {
+        // a 3 letter second subtag is an extlang replacing the language, not a country, as Locale.forLanguageTag does
+        this.parseAndCheck("zh-yue", "yue", "", "", "");
+        assertEquals("yue", Locale.forLanguageTag("zh-yue").getLanguage(), "Locale.getLanguage");
+        assertEquals("yue", WalkingkookaLanguageTag.parse("zh-yue").toLanguageTag(), "toLanguageTag");
+    }
+
+    @Test
+    public void testParseThreeDigitRegion() {
+        this.parseAndCheck("ar-001", "ar", "001", "", "");
+    }
+
+    @Test
+    public void testParseVariantWithoutCountry() {
+        this.parseAndCheck("sl-rozaj", "sl", "", "rozaj", "");
+    }
+
+    @Test
+    public void testParseMultipleVariants() {
+        this.parseAndCheck("sl-IT-rozaj-biske", "sl", "IT", "rozaj_biske", "");
+    }
+
+    @Test
+    public void testParseExtension() {
+        this.parseAndCheck("de-DE-u-co-phonebk", "de", "DE", "", "");
+    }
+
+    @Test
+    public void testParsePrivateUse() {
+        this.parseAndCheck("en-x-private", "en", "", "", "");
+    }
+
+    @Test
+    public void testParsePrivateUseLvariant() {
+        this.parseAndCheck("en-US-x-lvariant-POSIX", "en", "US", "POSIX", "");
+    }
+
+    @Test
+    public void testParseOnlyPrivateUse() {
+        this.parseAndCheck("x-private", "", "", "", "");
+    }
+
+    @Test
+    public void testParseRange() {
+        final String header = "Accept-Language: en-au;q=0.9";
+        final int start = header.indexOf("en");
+
+        final WalkingkookaLanguageTag wlt = WalkingkookaLanguageTag.parse(header, start, start + 5);
+        assertEquals("en", wlt.language(), "language");
+        assertEquals("AU", wlt.country(), "country");
+    }
+
+    @Test
+    public void testParseRangeInvalidFails() {
+        assertThrows(IndexOutOfBoundsException.class, () -> WalkingkookaLanguageTag.parse("en-AU", 3, 6));
+    }
+
+    @Test
+    public void testToLanguageTagVariantWithoutCountry() {
+        // the variant is included even without a country, as Locale.toLanguageTag does
+        assertEquals("sl-rozaj", WalkingkookaLanguageTag.with(null, "sl", "", "rozaj").toLanguageTag());
+        assertEquals("sl-rozaj", new Locale("sl", "", "rozaj").toLanguageTag(), "Locale.toLanguageTag");
+    }
+
+    @Test
+    public void testParseMultipleVariantsToLanguageTag() {
+        final String tag = "sl-IT-rozaj-biske";
+        assertEquals(tag, WalkingkookaLanguageTag.parse(tag).toLanguageTag());
+    }
+
     private void parseAndCheck(final String parse,
                                final String language,
                                final String country,
@@ -503,6 +884,61 @@ public final class WalkingkookaLanguageTagTest implements ClassTesting<Walkingko
         assertEquals(variant, wlt.variant(), "variant");
     }
 
+    // canonical.......................................................................................................
+
+    @Test
+    public void testParseKnownCanonical() {
+        WalkingkookaLanguageTag.all();
+
+        assertSame(WalkingkookaLanguageTag.parse("en-AU"), WalkingkookaLanguageTag.parse("en-AU"));
+    }
+
+    @Test
+    public void testParseKnownDifferentCaseCanonical() {
+        WalkingkookaLanguageTag.all();
+
+        assertSame(WalkingkookaLanguageTag.parse("en-AU"), WalkingkookaLanguageTag.parse("EN-au"));
+    }
+
+    @Test
+    public void testParseUnknownNotCanonical() {
+        assertNotSame(WalkingkookaLanguageTag.parse("qq-QQ"), WalkingkookaLanguageTag.parse("qq-QQ"));
+    }
+
+    @Test
+    public void testWithKnownCanonical() {
+        WalkingkookaLanguageTag.all();
+
+        assertSame(WalkingkookaLanguageTag.parse("en-AU"), WalkingkookaLanguageTag.with("en-AU", "en", "AU", ""));
+    }
+
+    @Test
+    public void testWithKnownDifferentComponentsNotCanonical() {
+        WalkingkookaLanguageTag.all();
+
+        final WalkingkookaLanguageTag wlt = WalkingkookaLanguageTag.with("nn-NO", "no", "NO", "NY");
+        assertNotSame(WalkingkookaLanguageTag.parse("nn-NO"), wlt);
+        assertEquals("no", wlt.language(), "language");
+    }
+
+    @Test
+    public void testDecodeCanonical() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final DataOutput out = StringDataInputDataOutput.output(text::append);
+        out.writeInt(1);
+        out.writeUTF("qr-QR,qr,QR");
+
+        final WalkingkookaLanguageTag decoded = WalkingkookaLanguageTag.decode(StringDataInputDataOutput.input(text.toString()))
+            .get(0);
+        assertSame(decoded, WalkingkookaLanguageTag.parse("qr-QR"));
+    }
+
+    @Test
+    public void testHashCodeCanonical() {
+        assertEquals(WalkingkookaLanguageTag.parse("en-AU").hashCode(),
+            WalkingkookaLanguageTag.with(null, "EN", "au", "").hashCode());
+    }
+
     // lang: no      coun: NO s:  var: NY
     @Test
     public void testWithNoNoNy() {
@@ -524,6 +960,100 @@ public final class WalkingkookaLanguageTagTest implements ClassTesting<Walkingko
         assertEquals("NY", wlt.variant(), "variant");
     }
 
+    // key..............................................................................................................
+
+    @Test
+    public void testToKeyFromKeyLanguage() {
+        this.toKeyFromKeyAndCheck("en");
+    }
+
+    @Test
+    public void testToKeyFromKeyLanguage3() {
+        this.toKeyFromKeyAndCheck("haw");
+    }
+
+    @Test
+    public void testToKeyFromKeyLanguageCountry() {
+        this.toKeyFromKeyAndCheck("en-AU");
+    }
+
+    @Test
+    public void testToKeyFromKeyLanguageNumericCountry() {
+        this.toKeyFromKeyAndCheck("ar-001");
+    }
+
+    @Test
+    public void testToKeyFromKeyLanguageScriptCountry() {
+        this.toKeyFromKeyAndCheck("bs-Latn-BA");
+    }
+
+    @Test
+    public void testToKeyFromKeyLanguageCountryVariant() {
+        this.toKeyFromKeyAndCheck("ca-ES-VALENCIA");
+    }
+
+    @Test
+    public void testToKeyFromKeyEmpty() {
+        this.toKeyFromKeyAndCheck("");
+    }
+
+    private void toKeyFromKeyAndCheck(final String tag) {
+        final WalkingkookaLanguageTag wlt = WalkingkookaLanguageTag.parse(tag);
+        final WalkingkookaLanguageTag fromKey = WalkingkookaLanguageTag.fromKey(wlt.toKey());
+
+        assertEquals(wlt, fromKey, () -> "fromKey(toKey) " + CharSequences.quoteAndEscape(tag));
+        assertEquals(wlt.hashCode(), fromKey.hashCode(), "hashCode");
+        assertEquals(wlt.language(), fromKey.language(), "language");
+        assertEquals(wlt.script(), fromKey.script(), "script");
+        assertEquals(wlt.country(), fromKey.country(), "country");
+        assertEquals(wlt.variant(), fromKey.variant(), "variant");
+        assertEquals(wlt.toLanguageTag(), fromKey.toLanguageTag(), "toLanguageTag");
+    }
+
+    @Test
+    public void testToKeySorted() {
+        final List<String> tags = Lists.of("ar-001", "ar-AE", "bs", "bs-Cyrl", "bs-Latn-BA", "en", "en-AU", "eng");
+        assertEquals(tags,
+            tags.stream()
+                .map(WalkingkookaLanguageTag::parse)
+                .map(WalkingkookaLanguageTag::toKey)
+                .sorted()
+                .map(WalkingkookaLanguageTag::fromKey)
+                .map(WalkingkookaLanguageTag::toLanguageTag)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testToKeyWithSameAsParse() {
+        assertEquals(WalkingkookaLanguageTag.parse("az-Cyrl-AZ").toKey(),
+            WalkingkookaLanguageTag.with("az-Cyrl-AZ", "az", "AZ", "", "Cyrl").toKey());
+    }
+
+    @Test
+    public void testToKeyLongLanguageFails() {
+        assertThrows(IllegalStateException.class, () -> WalkingkookaLanguageTag.parse("abcde").toKey());
+    }
+
+    @Test
+    public void testToKeyScriptNotTitleCaseFails() {
+        assertThrows(IllegalStateException.class, () -> WalkingkookaLanguageTag.with("az-cyrl-AZ", "az", "AZ", "", "cyrl").toKey());
+    }
+
+    @Test
+    public void testFromKeyNegativeFails() {
+        assertThrows(IllegalArgumentException.class, () -> WalkingkookaLanguageTag.fromKey(-1));
+    }
+
+    @Test
+    public void testFromKeyInvalidLanguageFails() {
+        assertThrows(IllegalArgumentException.class, () -> WalkingkookaLanguageTag.fromKey(0x7FFFL << 48));
+    }
+
+    @Test
+    public void testFromKeyUnknownVariantFails() {
+        assertThrows(IllegalArgumentException.class, () -> WalkingkookaLanguageTag.fromKey(WalkingkookaLanguageTag.parse("en").toKey() | 0xFFFF));
+    }
+
     // lookup............................................................................................................
 
     @Test
@@ -577,6 +1107,49 @@ public final class WalkingkookaLanguageTagTest implements ClassTesting<Walkingko
     }
 
 
+    @Test
+    public void testLookupMatchAfterDroppingScript() {
+        this.lookupAndCheck(Maps.of("bs-BA", 1), "bs-Latn-BA", 1);
+    }
+
+    @Test
+    public void testLookupCandidates() {
+        this.lookupCandidatesAndCheck("ca-ES-VALENCIA", "ca-ES-VALENCIA", "ca-ES", "ca");
+    }
+
+    @Test
+    public void testLookupCandidatesScript() {
+        this.lookupCandidatesAndCheck("bs-Latn", "bs-Latn", "bs");
+    }
+
+    @Test
+    public void testLookupCandidatesLanguage() {
+        this.lookupCandidatesAndCheck("en", "en");
+    }
+
+    @Test
+    public void testLookupCandidatesRepeated() {
+        final WalkingkookaLanguageTag tag = WalkingkookaLanguageTag.parse("en-AU");
+        tag.tryLookup(Maps.of("en", 1)::get);
+
+        this.lookupCandidatesAndCheck(tag, "en-AU", "en");
+    }
+
+    private void lookupCandidatesAndCheck(final String tag,
+                                          final String... candidates) {
+        this.lookupCandidatesAndCheck(WalkingkookaLanguageTag.parse(tag), candidates);
+    }
+
+    private void lookupCandidatesAndCheck(final WalkingkookaLanguageTag tag,
+                                          final String... candidates) {
+        final List<String> lookups = Lists.array();
+        tag.tryLookup(t -> {
+            lookups.add(t);
+            return null;
+        });
+        assertEquals(Lists.of(candidates), lookups, () -> "tryLookup " + tag);
+    }
+
     private void lookupAndCheck(final Map<String, Integer> source,
                                 final String tag,
                                 final Integer expected) {
@@ -585,6 +1158,43 @@ public final class WalkingkookaLanguageTagTest implements ClassTesting<Walkingko
             () -> "tryLookup " + tag + " with " + source);
     }
 
+    // tryLookupAll.....................................................................................................
+
+    @Test
+    public void testTryLookupAll() {
+        final WalkingkookaLanguageTag enAu = WalkingkookaLanguageTag.parse("en-AU");
+        final WalkingkookaLanguageTag enNz = WalkingkookaLanguageTag.parse("en-NZ");
+        final WalkingkookaLanguageTag frCa = WalkingkookaLanguageTag.parse("fr-CA");
+        final WalkingkookaLanguageTag frFr = WalkingkookaLanguageTag.parse("fr-FR");
+
+        final Map<String, Integer> source = Maps.of("en", 1, "fr-FR", 2);
+        final List<String> lookups = Lists.array();
+
+        final Map<WalkingkookaLanguageTag, Optional<Integer>> expected = Maps.ordered();
+        expected.put(enAu, Optional.of(1));
+        expected.put(enNz, Optional.of(1));
+        expected.put(frCa, Optional.empty());
+        expected.put(frFr, Optional.of(2));
+
+        assertEquals(expected,
+            WalkingkookaLanguageTag.tryLookupAll(
+                Lists.of(enAu, enNz, frCa, frFr, enAu),
+                t -> {
+                    lookups.add(t);
+                    return source.get(t);
+                }
+            ));
+        assertEquals(Lists.of("en-AU", "en", "en-NZ", "fr-CA", "fr", "fr-FR"), lookups, "lookups");
+    }
+
+    @Test
+    public void testTryLookupAllEmpty() {
+        assertEquals(Maps.ordered(),
+            WalkingkookaLanguageTag.tryLookupAll(Lists.of(), t -> {
+                throw new UnsupportedOperationException();
+            }));
+    }
+
     // Object...........................................................................................................
 
     @Test
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public final class LocaleAwareAnnotationProcessorCacheTest implements ClassTesting<LocaleAwareAnnotationProcessorCache>,
+    ToStringTesting<LocaleAwareAnnotationProcessorCache> {
+
+    private final static String TEMPLATE = "class Test { String DATA = $DATA; }";
+
+    @Test
+    public void testKeySame() throws IOException {
+        assertEquals(
+            this.key(TEMPLATE, this.options("EN*", "NONE")),
+            this.key(TEMPLATE, this.options("EN*", "NONE"))
+        );
+    }
+
+    @Test
+    public void testKeyOptionOrderIgnored() throws IOException {
+        final Map<String, String> options = Maps.ordered();
+        options.put("walkingkooka.j2cl.locale.Logging", "NONE");
+        options.put("walkingkooka.j2cl.java.util.Locale", "EN*");
+
+        assertEquals(
+            this.key(TEMPLATE, this.options("EN*", "NONE")),
+            this.key(TEMPLATE, options)
+        );
+    }
+
+    @Test
+    public void testKeyDifferentOption() throws IOException {
+        assertNotEquals(
+            this.key(TEMPLATE, this.options("EN*", "NONE")),
+            this.key(TEMPLATE, this.options("FR*", "NONE"))
+        );
+    }
+
+    @Test
+    public void testKeyMissingOption() throws IOException {
+        assertNotEquals(
+            this.key(TEMPLATE, this.options("EN*", "NONE")),
+            this.key(TEMPLATE, this.options("EN*", null))
+        );
+    }
+
+    @Test
+    public void testKeyDifferentTemplate() throws IOException {
+        assertNotEquals(
+            this.key(TEMPLATE, this.options("EN*", "NONE")),
+            this.key(TEMPLATE + " ", this.options("EN*", "NONE"))
+        );
+    }
+
+    @Test
+    public void testKeyDifferentProcessor() throws IOException {
+        assertNotEquals(
+            this.key(TEMPLATE, this.options("EN*", "NONE")),
+            LocaleAwareAnnotationProcessorCache.key(
+                LocaleAwareAnnotationProcessor.class,
+                TEMPLATE,
+                this.options("EN*", "NONE"),
+                Lists.empty()
+            )
+        );
+    }
+
+    @Test
+    public void testCodeSourcesIncludesProcessorLocation() throws Exception {
+        this.checkEquals(
+            true,
+            LocaleAwareAnnotationProcessorCache.codeSources(
+                TestLocaleAwareAnnotationProcessor.class,
+                Lists.empty()
+            ).contains(this.testLocation())
+        );
+    }
+
+    @Test
+    public void testCodeSourcesExcludesOutputDirectory() throws Exception {
+        this.checkEquals(
+            false,
+            LocaleAwareAnnotationProcessorCache.codeSources(
+                TestLocaleAwareAnnotationProcessor.class,
+                Lists.of(this.testLocation())
+            ).contains(this.testLocation())
+        );
+    }
+
+    @Test
+    public void testKeyMemoized() throws IOException {
+        final Map<String, String> options = this.options("EN*", "NONE");
+
+        assertEquals(
+            LocaleAwareAnnotationProcessorCache.key(
+                TestLocaleAwareAnnotationProcessor.class,
+                TEMPLATE,
+                options,
+                Lists.empty()
+            ),
+            LocaleAwareAnnotationProcessorCache.key(
+                TestLocaleAwareAnnotationProcessor.class,
+                TEMPLATE,
+                options,
+                Lists.empty()
+            )
+        );
+    }
+
+    private Path testLocation() throws Exception {
+        return Paths.get(
+            TestLocaleAwareAnnotationProcessor.class.getProtectionDomain()
+                .getCodeSource()
+                .getLocation()
+                .toURI()
+        ).toAbsolutePath()
+            .normalize();
+    }
+
+    @Test
+    public void testKeyCodeSourceFileChanged(@TempDir final Path directory) throws IOException {
+        final Path jar = directory.resolve("dependency.jar");
+        Files.write(jar, new byte[]{1, 2, 3});
+
+        final String key = this.key(Lists.of(jar));
+
+        Files.write(jar, new byte[]{1, 2, 4});
+
+        assertNotEquals(
+            key,
+            this.key(Lists.of(jar))
+        );
+    }
+
+    @Test
+    public void testKeyCodeSourceDirectoryFileChanged(@TempDir final Path directory) throws IOException {
+        final Path classes = directory.resolve("classes");
+        final Path file = classes.resolve("walkingkooka")
+            .resolve("Helper.class");
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[]{1, 2, 3});
+
+        final String key = this.key(Lists.of(classes));
+
+        Files.write(file, new byte[]{1, 2, 4});
+
+        assertNotEquals(
+            key,
+            this.key(Lists.of(classes))
+        );
+    }
+
+    @Test
+    public void testKeyCodeSourceMissingIgnored(@TempDir final Path directory) throws IOException {
+        final Path missing = directory.resolve("missing.jar");
+
+        assertEquals(
+            this.key(Lists.of(missing)),
+            this.key(Lists.of(missing))
+        );
+    }
+
+    private String key(final List<Path> codeSources) throws IOException {
+        return LocaleAwareAnnotationProcessorCache.key(
+            TestLocaleAwareAnnotationProcessor.class,
+            codeSources,
+            TEMPLATE,
+            this.options("EN*", "NONE")
+        );
+    }
+
+    private String key(final String template,
+                       final Map<String, String> options) throws IOException {
+        return LocaleAwareAnnotationProcessorCache.key(
+            TestLocaleAwareAnnotationProcessor.class,
+            template,
+            options,
+            Lists.empty()
+        );
+    }
+
+    private Map<String, String> options(final String locales,
+                                        final String logging) {
+        final Map<String, String> options = Maps.ordered();
+        options.put("walkingkooka.j2cl.java.util.Locale", locales);
+        options.put("walkingkooka.j2cl.locale.Logging", logging);
+        return options;
+    }
+
+    @Test
+    public void testGetMissing(@TempDir final Path directory) throws IOException {
+        assertEquals(
+            Optional.empty(),
+            LocaleAwareAnnotationProcessorCache.with(directory)
+                .get("abc123")
+        );
+    }
+
+    @Test
+    public void testPutAndGet(@TempDir final Path directory) throws IOException {
+        final LocaleAwareAnnotationProcessorCache cache = LocaleAwareAnnotationProcessorCache.with(directory.resolve("cache"));
+        final LocaleAwareAnnotationProcessorCacheEntry entry = LocaleAwareAnnotationProcessorCacheEntry.with(
+            "class Test {}",
+            "log ü",
+            "summary"
+        );
+        cache.put("abc123", entry);
+
+        assertEquals(Optional.of(entry), cache.get("abc123"));
+        assertEquals(Optional.empty(), cache.get("def456"));
+    }
+
+    @Test
+    public void testPutReplaces(@TempDir final Path directory) throws IOException {
+        final LocaleAwareAnnotationProcessorCache cache = LocaleAwareAnnotationProcessorCache.with(directory);
+        cache.put("abc123", LocaleAwareAnnotationProcessorCacheEntry.with("1", "", "summary1"));
+
+        final LocaleAwareAnnotationProcessorCacheEntry entry = LocaleAwareAnnotationProcessorCacheEntry.with("2", "", "summary2");
+        cache.put("abc123", entry);
+
+        assertEquals(Optional.of(entry), cache.get("abc123"));
+    }
+
+    @Test
+    public void testPutEvictsLeastRecentlyUsed(@TempDir final Path directory) throws IOException {
+        final LocaleAwareAnnotationProcessorCache cache = LocaleAwareAnnotationProcessorCache.with(directory);
+        final int count = LocaleAwareAnnotationProcessorCache.MAX_ENTRIES;
+
+        for (int i = 0; i < count; i++) {
+            cache.put("key" + i, LocaleAwareAnnotationProcessorCacheEntry.with("source" + i, "", "summary" + i));
+            Files.setLastModifiedTime(
+                directory.resolve("key" + i + ".summary"),
+                FileTime.fromMillis(1000L * (i + 1))
+            );
+        }
+
+        cache.put("new", LocaleAwareAnnotationProcessorCacheEntry.with("source", "", "summary"));
+
+        assertEquals(Optional.empty(), cache.get("key0"));
+        assertEquals(false, Files.exists(directory.resolve("key0.java")), "key0.java");
+        assertEquals(
+            Optional.of(LocaleAwareAnnotationProcessorCacheEntry.with("source1", "", "summary1")),
+            cache.get("key1")
+        );
+        assertEquals(
+            Optional.of(LocaleAwareAnnotationProcessorCacheEntry.with("source", "", "summary")),
+            cache.get("new")
+        );
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString(@TempDir final Path directory) {
+        this.toStringAndCheck(LocaleAwareAnnotationProcessorCache.with(directory), directory.toString());
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<LocaleAwareAnnotationProcessorCache> type() {
+        return LocaleAwareAnnotationProcessorCache.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class LocaleAwareAnnotationProcessorContextTest implements ClassTesting<LocaleAwareAnnotationProcessorContext>,
+    ToStringTesting<LocaleAwareAnnotationProcessorContext> {
+
+    private final static String FILTER = "EN-A*";
+
+    @Test
+    public void testGetNullEnvironmentFails() {
+        assertThrows(NullPointerException.class, () -> LocaleAwareAnnotationProcessorContext.get(null, FILTER));
+    }
+
+    @Test
+    public void testGetNullFilterFails() {
+        assertThrows(NullPointerException.class, () -> LocaleAwareAnnotationProcessorContext.get(new TestProcessingEnvironment(), null));
+    }
+
+    @Test
+    public void testGet() {
+        final LocaleAwareAnnotationProcessorContext context = LocaleAwareAnnotationProcessorContext.get(new TestProcessingEnvironment(), FILTER);
+
+        this.checkEquals(WalkingkookaLanguageTag.all(FILTER), context.languageTags, "languageTags");
+        this.checkEquals(LocaleAwareAnnotationProcessorTool.toLocales(context.languageTags), context.locales, "locales");
+    }
+
+    @Test
+    public void testGetSameEnvironmentAndFilter() {
+        final ProcessingEnvironment environment = new TestProcessingEnvironment();
+
+        assertSame(
+            LocaleAwareAnnotationProcessorContext.get(environment, FILTER),
+            LocaleAwareAnnotationProcessorContext.get(environment, FILTER)
+        );
+    }
+
+    @Test
+    public void testGetSameEnvironmentDifferentFilter() {
+        final ProcessingEnvironment environment = new TestProcessingEnvironment();
+
+        assertNotSame(
+            LocaleAwareAnnotationProcessorContext.get(environment, FILTER),
+            LocaleAwareAnnotationProcessorContext.get(environment, "FR")
+        );
+    }
+
+    @Test
+    public void testGetDifferentEnvironment() {
+        final LocaleAwareAnnotationProcessorContext context = LocaleAwareAnnotationProcessorContext.get(new TestProcessingEnvironment(), FILTER);
+        final LocaleAwareAnnotationProcessorContext context2 = LocaleAwareAnnotationProcessorContext.get(new TestProcessingEnvironment(), FILTER);
+
+        assertNotSame(context, context2);
+        this.checkEquals(context.locales, context2.locales);
+    }
+
+    @Test
+    public void testLocalesReadOnly() {
+        final LocaleAwareAnnotationProcessorContext context = LocaleAwareAnnotationProcessorContext.get(new TestProcessingEnvironment(), FILTER);
+
+        assertThrows(UnsupportedOperationException.class, () -> context.locales.add(Locale.FRANCE));
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            LocaleAwareAnnotationProcessorContext.get(new TestProcessingEnvironment(), FILTER),
+            FILTER
+        );
+    }
+
+    static class TestProcessingEnvironment implements ProcessingEnvironment {
+
+        @Override
+        public Map<String, String> getOptions() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Messager getMessager() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Filer getFiler() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Elements getElementUtils() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Types getTypeUtils() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SourceVersion getSourceVersion() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Locale getLocale() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<LocaleAwareAnnotationProcessorContext> type() {
+        return LocaleAwareAnnotationProcessorContext.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class LocaleAwareAnnotationProcessorDataBudgetTest implements ClassTesting<LocaleAwareAnnotationProcessorDataBudget>,
+    ToStringTesting<LocaleAwareAnnotationProcessorDataBudget> {
+
+    private final static String OPTION = "walkingkooka.j2cl.locale.DataBudget";
+
+    private final static Map<String, Integer> SECTIONS = Maps.of("en", 3);
+
+    private final static Map<String, Integer> REFERENCES = Maps.of("en", 1);
+
+    @Test
+    public void testParseInvalidFails() {
+        this.parseFails("abc");
+    }
+
+    @Test
+    public void testParseZeroFails() {
+        this.parseFails("0");
+    }
+
+    @Test
+    public void testParseNegativeFails() {
+        this.parseFails("-1gzip");
+    }
+
+    @Test
+    public void testParseSuffixOnlyFails() {
+        this.parseFails("gzip");
+    }
+
+    private void parseFails(final String text) {
+        final IllegalStateException thrown = assertThrows(
+            IllegalStateException.class,
+            () -> LocaleAwareAnnotationProcessorDataBudget.parse(OPTION, text)
+        );
+        this.checkEquals(
+            true,
+            thrown.getMessage().contains(OPTION),
+            () -> thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testCheckWithoutSectionsExceeded() {
+        final IllegalStateException thrown = assertThrows(
+            IllegalStateException.class,
+            () -> LocaleAwareAnnotationProcessorDataBudget.parse(OPTION, "2")
+                .check("abc", Maps.of(LocaleSectionDataOutput.UNSECTIONED, 3), Maps.empty())
+        );
+        this.checkEquals(
+            "DATA 3 char(s) exceeds budget of 2 char(s), largest locales by char(s) before compression: (unsectioned)=3",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testCheckWithoutSectionsWithin() throws IOException {
+        LocaleAwareAnnotationProcessorDataBudget.parse(OPTION, "3")
+            .check("abc", Maps.of(LocaleSectionDataOutput.UNSECTIONED, 3), Maps.empty());
+    }
+
+    @Test
+    public void testCheckCharsWithin() throws IOException {
+        LocaleAwareAnnotationProcessorDataBudget.parse(OPTION, "3")
+            .check("abc", SECTIONS, REFERENCES);
+    }
+
+    @Test
+    public void testCheckCharsExceeded() {
+        final IllegalStateException thrown = assertThrows(
+            IllegalStateException.class,
+            () -> LocaleAwareAnnotationProcessorDataBudget.parse(OPTION, "2chars")
+                .check("abc", SECTIONS, REFERENCES)
+        );
+        this.checkEquals(
+            "DATA 3 char(s) exceeds budget of 2 char(s), largest locales by char(s) before compression: en=3",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testCheckCharsExceededWithSections() {
+        final Map<String, Integer> sections = Maps.ordered();
+        sections.put("en", 1);
+        sections.put("en-AU", 20);
+        sections.put("fr", 5);
+
+        final IllegalStateException thrown = assertThrows(
+            IllegalStateException.class,
+            () -> LocaleAwareAnnotationProcessorDataBudget.parse(OPTION, "10")
+                .check("12345678901234567890123456", sections, Maps.empty())
+        );
+        this.checkEquals(
+            "DATA 26 char(s) exceeds budget of 10 char(s), largest locales by char(s) before compression: en-AU=20, fr=5, en=1",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testCheckCharsExceededWithSharedSections() {
+        final Map<String, Integer> sections = Maps.ordered();
+        sections.put("en", 20);
+        sections.put("fr", 5);
+
+        final Map<String, Integer> references = Maps.ordered();
+        references.put("en", 3);
+        references.put("fr", 1);
+
+        final IllegalStateException thrown = assertThrows(
+            IllegalStateException.class,
+            () -> LocaleAwareAnnotationProcessorDataBudget.parse(OPTION, "10")
+                .check("1234567890123456789012345", sections, references)
+        );
+        this.checkEquals(
+            "DATA 25 char(s) exceeds budget of 10 char(s), largest locales by char(s) before compression: en=20 shared by 3 locales, fr=5",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testCheckGzipWithin() throws IOException {
+        LocaleAwareAnnotationProcessorDataBudget.parse(OPTION, "100gzip")
+            .check("abcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabcabc", SECTIONS, REFERENCES);
+    }
+
+    @Test
+    public void testCheckGzipExceeded() {
+        final IllegalStateException thrown = assertThrows(
+            IllegalStateException.class,
+            () -> LocaleAwareAnnotationProcessorDataBudget.parse(OPTION, "1gzip")
+                .check("abc", SECTIONS, REFERENCES)
+        );
+        this.checkEquals(
+            true,
+            thrown.getMessage().contains("gzipped byte(s) exceeds budget of 1 gzipped byte(s)"),
+            () -> thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testToStringChars() {
+        this.toStringAndCheck(
+            LocaleAwareAnnotationProcessorDataBudget.parse(OPTION, "123"),
+            "123chars"
+        );
+    }
+
+    @Test
+    public void testToStringGzip() {
+        this.toStringAndCheck(
+            LocaleAwareAnnotationProcessorDataBudget.parse(OPTION, "456gzip"),
+            "456gzip"
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<LocaleAwareAnnotationProcessorDataBudget> type() {
+        return LocaleAwareAnnotationProcessorDataBudget.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.locale.TimeZoneCalendar;
+import walkingkooka.j2cl.locale.TimeZoneDisplay;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.reflect.PublicStaticHelperTesting;
+
+import java.lang.reflect.Method;
+import java.text.DateFormatSymbols;
+import java.text.DecimalFormatSymbols;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class LocaleAwareAnnotationProcessorJdkDataTest implements PublicStaticHelperTesting<LocaleAwareAnnotationProcessorJdkData> {
+
+    private final static Locale LOCALE = Locale.forLanguageTag("fr-FR");
+
+    @Test
+    public void testCalendarNullFails() {
+        assertThrows(NullPointerException.class, () -> LocaleAwareAnnotationProcessorJdkData.calendar(null));
+    }
+
+    @Test
+    public void testCalendar() {
+        final TimeZoneCalendar calendar = LocaleAwareAnnotationProcessorJdkData.calendar(LOCALE);
+        this.checkEquals(
+            TimeZoneCalendar.with(Calendar.getInstance(LOCALE)),
+            calendar
+        );
+        assertSame(calendar, LocaleAwareAnnotationProcessorJdkData.calendar(LOCALE));
+    }
+
+    @Test
+    public void testDateFormatSymbols() {
+        final DateFormatSymbols symbols = LocaleAwareAnnotationProcessorJdkData.dateFormatSymbols(LOCALE);
+        this.checkEquals(
+            DateFormatSymbols.getInstance(LOCALE),
+            symbols
+        );
+        assertNotSame(symbols, LocaleAwareAnnotationProcessorJdkData.dateFormatSymbols(LOCALE));
+    }
+
+    @Test
+    public void testDateFormatSymbolsCopy() {
+        LocaleAwareAnnotationProcessorJdkData.dateFormatSymbols(LOCALE)
+            .setWeekdays(new String[]{"", "1", "2", "3", "4", "5", "6", "7"});
+
+        this.checkEquals(
+            DateFormatSymbols.getInstance(LOCALE),
+            LocaleAwareAnnotationProcessorJdkData.dateFormatSymbols(LOCALE)
+        );
+    }
+
+    @Test
+    public void testDecimalFormatSymbols() {
+        this.checkEquals(
+            DecimalFormatSymbols.getInstance(LOCALE),
+            LocaleAwareAnnotationProcessorJdkData.decimalFormatSymbols(LOCALE)
+        );
+    }
+
+    @Test
+    public void testTimeZoneDisplayNullZoneIdFails() {
+        assertThrows(NullPointerException.class, () -> LocaleAwareAnnotationProcessorJdkData.timeZoneDisplay(null, LOCALE));
+    }
+
+    @Test
+    public void testTimeZoneDisplay() {
+        final String zoneId = "Australia/Sydney";
+        final TimeZone timeZone = TimeZone.getTimeZone(zoneId);
+
+        final TimeZoneDisplay display = LocaleAwareAnnotationProcessorJdkData.timeZoneDisplay(zoneId, LOCALE);
+        this.checkEquals(
+            TimeZoneDisplay.with(
+                timeZone.getDisplayName(false, TimeZone.SHORT, LOCALE),
+                timeZone.getDisplayName(true, TimeZone.SHORT, LOCALE),
+                timeZone.getDisplayName(false, TimeZone.LONG, LOCALE),
+                timeZone.getDisplayName(true, TimeZone.LONG, LOCALE)
+            ),
+            display
+        );
+        assertSame(display, LocaleAwareAnnotationProcessorJdkData.timeZoneDisplay(zoneId, LOCALE));
+    }
+
+    @Override
+    public Class<LocaleAwareAnnotationProcessorJdkData> type() {
+        return LocaleAwareAnnotationProcessorJdkData.class;
+    }
+
+    @Override
+    public boolean canHavePublicTypes(final Method method) {
+        return false;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
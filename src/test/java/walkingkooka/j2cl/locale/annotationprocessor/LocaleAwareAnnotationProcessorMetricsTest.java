@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class LocaleAwareAnnotationProcessorMetricsTest implements ClassTesting<LocaleAwareAnnotationProcessorMetrics>,
+    ToStringTesting<LocaleAwareAnnotationProcessorMetrics> {
+
+    @Test
+    public void testNanosMissing() {
+        assertEquals(0, LocaleAwareAnnotationProcessorMetrics.empty().nanos(LocaleAwareAnnotationProcessorMetrics.GENERATE));
+    }
+
+    @Test
+    public void testAdd() {
+        final LocaleAwareAnnotationProcessorMetrics metrics = LocaleAwareAnnotationProcessorMetrics.empty();
+        metrics.add(LocaleAwareAnnotationProcessorMetrics.GENERATE, 1);
+        metrics.add(LocaleAwareAnnotationProcessorMetrics.GENERATE, 2);
+
+        assertEquals(3, metrics.nanos(LocaleAwareAnnotationProcessorMetrics.GENERATE));
+    }
+
+    @Test
+    public void testEnd() {
+        final LocaleAwareAnnotationProcessorMetrics metrics = LocaleAwareAnnotationProcessorMetrics.empty();
+        metrics.end(LocaleAwareAnnotationProcessorMetrics.GENERATE, System.nanoTime());
+
+        assertTrue(metrics.nanos(LocaleAwareAnnotationProcessorMetrics.GENERATE) >= 0);
+    }
+
+    @Test
+    public void testWriter() throws IOException {
+        final LocaleAwareAnnotationProcessorMetrics metrics = LocaleAwareAnnotationProcessorMetrics.empty();
+        final StringWriter stringWriter = new StringWriter();
+
+        try (final LocaleAwareAnnotationProcessorMetricsWriter writer = metrics.writer(stringWriter)) {
+            writer.write("abc");
+            writer.write('d');
+            writer.write(new char[]{'e', 'f'});
+            writer.flush();
+
+            assertEquals(6, writer.count(), "count");
+        }
+
+        this.checkEquals("abcdef", stringWriter.toString());
+        assertTrue(metrics.nanos(LocaleAwareAnnotationProcessorMetrics.WRITE) > 0, "write");
+    }
+
+    @Test
+    public void testSummary() {
+        this.checkEquals(
+            "time: locales 1ms, generate 20ms, total 21ms",
+            this.metrics().summary()
+        );
+    }
+
+    @Test
+    public void testWriteJson() throws IOException {
+        final LocaleAwareAnnotationProcessorMetrics metrics = this.metrics();
+        metrics.value("dataChars", 123);
+        metrics.value("sourceChars", 456);
+
+        final StringWriter writer = new StringWriter();
+        metrics.writeJson("test.annotationprocessor.TestAnnotationProcessor", "test.generated.Test", writer);
+
+        this.checkEquals(
+            "{\n" +
+                "  \"processor\": \"test.annotationprocessor.TestAnnotationProcessor\",\n" +
+                "  \"generated\": \"test.generated.Test\",\n" +
+                "  \"nanos\": {\n" +
+                "    \"locales\": 1500000,\n" +
+                "    \"generate\": 20000000,\n" +
+                "    \"total\": 21500000\n" +
+                "  },\n" +
+                "  \"values\": {\n" +
+                "    \"dataChars\": 123,\n" +
+                "    \"sourceChars\": 456\n" +
+                "  }\n" +
+                "}\n",
+            writer.toString()
+        );
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            this.metrics(),
+            "time: locales 1ms, generate 20ms, total 21ms"
+        );
+    }
+
+    private LocaleAwareAnnotationProcessorMetrics metrics() {
+        final LocaleAwareAnnotationProcessorMetrics metrics = LocaleAwareAnnotationProcessorMetrics.empty();
+        metrics.add(LocaleAwareAnnotationProcessorMetrics.LOCALES, 1500000);
+        metrics.add(LocaleAwareAnnotationProcessorMetrics.GENERATE, 20000000);
+        return metrics;
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<LocaleAwareAnnotationProcessorMetrics> type() {
+        return LocaleAwareAnnotationProcessorMetrics.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class LocaleAwareAnnotationProcessorTemplateTest implements ClassTesting<LocaleAwareAnnotationProcessorTemplate>,
+    ToStringTesting<LocaleAwareAnnotationProcessorTemplate> {
+
+    private final static String NAME = "Test.java.txt";
+
+    private final static String TEMPLATE = "class Test {\n" +
+        "  // $FILTERED_LOCALES\n" +
+        "  // $SELECTED_LOCALES\n" +
+        "$DATA_COMMENT\n" +
+        "  String DATA = $DATA;\n" +
+        "}";
+
+    @Test
+    public void testCompileMissingFilteredLocalesFails() {
+        this.compileFails(
+            TEMPLATE.replace(LocaleAwareAnnotationProcessor.ANNOTATION_PROCESSOR_LOCALES_FILTER, ""),
+            "Unable to find \"$FILTERED_LOCALES\" in \"Test.java.txt\""
+        );
+    }
+
+    @Test
+    public void testCompileMissingSelectedLocalesFails() {
+        this.compileFails(
+            TEMPLATE.replace(LocaleAwareAnnotationProcessor.SELECTED_LOCALES, ""),
+            "Unable to find \"$SELECTED_LOCALES\" in \"Test.java.txt\""
+        );
+    }
+
+    @Test
+    public void testCompileMissingDataCommentFails() {
+        this.compileFails(
+            TEMPLATE.replace(LocaleAwareAnnotationProcessor.DATA_COMMENT, ""),
+            "Unable to find \"$DATA_COMMENT\" in \"Test.java.txt\""
+        );
+    }
+
+    @Test
+    public void testCompileMissingDataFails() {
+        this.compileFails(
+            TEMPLATE.replace(LocaleAwareAnnotationProcessor.DATA + ";", ";"),
+            "Unable to find \"$DATA\" in \"Test.java.txt\""
+        );
+    }
+
+    private void compileFails(final String text,
+                              final String message) {
+        final IllegalStateException thrown = assertThrows(
+            IllegalStateException.class,
+            () -> LocaleAwareAnnotationProcessorTemplate.compile(text, NAME)
+        );
+        this.checkEquals(message, thrown.getMessage());
+    }
+
+    @Test
+    public void testHas() {
+        final LocaleAwareAnnotationProcessorTemplate template = this.createTemplate();
+        assertEquals(true, template.has(LocaleAwareAnnotationProcessor.DATA), "DATA");
+        assertEquals(false, template.has(LocaleAwareAnnotationProcessor.DEFAULT), "DEFAULT");
+    }
+
+    @Test
+    public void testRender() throws IOException {
+        this.renderAndCheck(
+            TEMPLATE,
+            this.values(),
+            "class Test {\n" +
+                "  // \"EN*\"\n" +
+                "  // \"en,en-AU\"\n" +
+                "// comment\n" +
+                "  String DATA = \"data\";\n" +
+                "}"
+        );
+    }
+
+    @Test
+    public void testRenderRepeatedPlaceholderAndOtherDollars() throws IOException {
+        this.renderAndCheck(
+            "$X $DATA $FILTERED_LOCALES $SELECTED_LOCALES $DATA_COMMENT $DATA$",
+            this.values(),
+            "$X \"data\" \"EN*\" \"en,en-AU\" // comment \"data\"$"
+        );
+    }
+
+    @Test
+    public void testRenderValueContainingPlaceholderNotReplaced() throws IOException {
+        final Map<String, LocaleAwareAnnotationProcessorTemplateValue> values = this.values();
+        values.put(LocaleAwareAnnotationProcessor.ANNOTATION_PROCESSOR_LOCALES_FILTER, LocaleAwareAnnotationProcessorTemplateValue.text("$DATA"));
+
+        this.renderAndCheck(
+            TEMPLATE,
+            values,
+            "class Test {\n" +
+                "  // $DATA\n" +
+                "  // \"en,en-AU\"\n" +
+                "// comment\n" +
+                "  String DATA = \"data\";\n" +
+                "}"
+        );
+    }
+
+    @Test
+    public void testRenderDefault() throws IOException {
+        final Map<String, LocaleAwareAnnotationProcessorTemplateValue> values = this.values();
+        values.put(LocaleAwareAnnotationProcessor.DEFAULT, LocaleAwareAnnotationProcessorTemplateValue.text("\"en-AU\""));
+
+        this.renderAndCheck(
+            TEMPLATE + "$DEFAULT",
+            values,
+            "class Test {\n" +
+                "  // \"EN*\"\n" +
+                "  // \"en,en-AU\"\n" +
+                "// comment\n" +
+                "  String DATA = \"data\";\n" +
+                "}\"en-AU\""
+        );
+    }
+
+    @Test
+    public void testRenderDefaultMissingValue() throws IOException {
+        this.renderAndCheck(
+            "$DEFAULT $FILTERED_LOCALES $SELECTED_LOCALES $DATA_COMMENT $DATA",
+            this.values(),
+            "$DEFAULT \"EN*\" \"en,en-AU\" // comment \"data\""
+        );
+    }
+
+    @Test
+    public void testRenderDefaultMissingPlaceholderFails() {
+        final Map<String, LocaleAwareAnnotationProcessorTemplateValue> values = this.values();
+        values.put(LocaleAwareAnnotationProcessor.DEFAULT, LocaleAwareAnnotationProcessorTemplateValue.text("\"en-AU\""));
+
+        final IllegalStateException thrown = assertThrows(
+            IllegalStateException.class,
+            () -> this.createTemplate().render(values, new StringWriter())
+        );
+        this.checkEquals("Unable to find \"$DEFAULT\" in \"Test.java.txt\"", thrown.getMessage());
+    }
+
+    @Test
+    public void testRenderDataInput() throws IOException {
+        final Map<String, LocaleAwareAnnotationProcessorTemplateValue> values = this.values();
+        values.put(LocaleAwareAnnotationProcessor.DATA_INPUT, LocaleAwareAnnotationProcessorTemplateValue.text("Input.input"));
+
+        this.renderAndCheck(
+            TEMPLATE + "$DATA_INPUT(DATA)",
+            values,
+            "class Test {\n" +
+                "  // \"EN*\"\n" +
+                "  // \"en,en-AU\"\n" +
+                "// comment\n" +
+                "  String DATA = \"data\";\n" +
+                "}Input.input(DATA)"
+        );
+    }
+
+    private void renderAndCheck(final String template,
+                                final Map<String, LocaleAwareAnnotationProcessorTemplateValue> values,
+                                final String expected) throws IOException {
+        final StringWriter writer = new StringWriter();
+        LocaleAwareAnnotationProcessorTemplate.compile(template, NAME)
+            .render(values, writer);
+        this.checkEquals(expected, writer.toString());
+    }
+
+    private Map<String, LocaleAwareAnnotationProcessorTemplateValue> values() {
+        final Map<String, LocaleAwareAnnotationProcessorTemplateValue> values = Maps.ordered();
+        values.put(LocaleAwareAnnotationProcessor.ANNOTATION_PROCESSOR_LOCALES_FILTER, LocaleAwareAnnotationProcessorTemplateValue.text("\"EN*\""));
+        values.put(LocaleAwareAnnotationProcessor.SELECTED_LOCALES, LocaleAwareAnnotationProcessorTemplateValue.text("\"en,en-AU\""));
+        values.put(LocaleAwareAnnotationProcessor.DATA_COMMENT, LocaleAwareAnnotationProcessorTemplateValue.text("// comment"));
+        values.put(LocaleAwareAnnotationProcessor.DATA, LocaleAwareAnnotationProcessorTemplateValue.text("\"data\""));
+        return values;
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(this.createTemplate(), NAME);
+    }
+
+    private LocaleAwareAnnotationProcessorTemplate createTemplate() {
+        return LocaleAwareAnnotationProcessorTemplate.compile(TEMPLATE, NAME);
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<LocaleAwareAnnotationProcessorTemplate> type() {
+        return LocaleAwareAnnotationProcessorTemplate.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -26,6 +26,9 @@ import walkingkooka.reflect.ClassTesting;
 import walkingkooka.reflect.JavaVisibility;
 import walkingkooka.text.CharSequences;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -130,7 +133,7 @@ public final class LocaleAwareAnnotationProcessorTest implements ClassTesting<Lo
     public void testStringDeclarationSplitBackslash() {
         this.stringDeclarationAndCheck("abcdefghijk\\lmnopq",
             13,
-            "new java.lang.StringBuilder().append(\"abcdefghijk\\\").append(\"\\lmnopq\").toString()"
+            "new java.lang.StringBuilder().append(\"abcdefghijk\").append(\"\\\\lmnopq\").toString()"
         );
     }
 
@@ -158,6 +161,31 @@ public final class LocaleAwareAnnotationProcessorTest implements ClassTesting<Lo
         );
     }
 
+    @Test
+    public void testStringDeclarationSplitNewLine() {
+        this.stringDeclarationAndCheck("abcdefghijk\nlmnopq",
+            13,
+            "new java.lang.StringBuilder().append(\"abcdefghijk\").append(\"\\nlmnopq\").toString()"
+        );
+    }
+
+    @Test
+    public void testStringDeclarationSplitSeveral() {
+        this.stringDeclarationAndCheck("abcdefghijklmnopqrstuvwxyz0123456789",
+            13,
+            "new java.lang.StringBuilder().append(\"abcdefghijkl\").append(\"mnopqrstuvwx\").append(\"yz0123456789\").toString()"
+        );
+    }
+
+    @Test
+    public void testStringDeclarationWriter() throws IOException {
+        final String text = "abcdefghijk\\lmnopq";
+        final StringWriter writer = new StringWriter();
+        LocaleAwareAnnotationProcessor.stringDeclaration(text, 13, writer);
+
+        assertEquals(LocaleAwareAnnotationProcessor.stringDeclaration(text, 13).toString(), writer.toString());
+    }
+
     private void stringDeclarationAndCheck(final String text, final int max, final String expected) {
         final String string = LocaleAwareAnnotationProcessor.stringDeclaration(text, max).toString();
         System.out.println(string);
@@ -18,18 +18,25 @@
 package walkingkooka.j2cl.locale.annotationprocessor;
 
 import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
 import walkingkooka.collect.map.Maps;
 import walkingkooka.collect.set.Sets;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
 import walkingkooka.reflect.JavaVisibility;
 import walkingkooka.reflect.PublicStaticHelperTesting;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.IndentingPrinter;
 
 import java.lang.reflect.Method;
 import java.text.DateFormatSymbols;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public final class LocaleAwareAnnotationProcessorToolTest implements PublicStaticHelperTesting<LocaleAwareAnnotationProcessorTool> {
 
@@ -39,6 +46,27 @@ public final class LocaleAwareAnnotationProcessorToolTest implements PublicStati
             LocaleAwareAnnotationProcessorTool.toLocales(Sets.of("EN-AU")));
     }
 
+    @Test
+    public void testToLocalesImmutable() {
+        final Set<Locale> locales = LocaleAwareAnnotationProcessorTool.toLocales(Sets.of("EN-AU"));
+        assertThrows(
+            UnsupportedOperationException.class,
+            () -> locales.add(Locale.FRENCH)
+        );
+    }
+
+    @Test
+    public void testBuildMultiLocaleMapValuesImmutable() {
+        final Set<Locale> locales = LocaleAwareAnnotationProcessorTool.buildMultiLocaleMap(
+            Locale::getLanguage,
+            Sets.of(Locale.forLanguageTag("EN-AU"))
+        ).get("en");
+        assertThrows(
+            UnsupportedOperationException.class,
+            () -> locales.add(Locale.FRENCH)
+        );
+    }
+
     @Test
     public void testBuildMultiLocaleMapWithComparator() {
         final Locale EN_AU = Locale.forLanguageTag("EN-AU");
@@ -91,10 +119,149 @@ public final class LocaleAwareAnnotationProcessorToolTest implements PublicStati
                 Sets.of(EN_AU, EN_NZ, FR_FR, ES_ES, ES_MX, ES_AR)));
     }
 
+    @Test
+    public void testBuildMultiLocaleMapParallelismInvalidFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> LocaleAwareAnnotationProcessorTool.buildMultiLocaleMap(
+                LocaleAwareAnnotationProcessorToolTest::firstDayOfWeek,
+                Sets.of(Locale.ENGLISH),
+                0
+            )
+        );
+        this.checkEquals("Invalid parallelism 0 < 1", thrown.getMessage());
+    }
+
+    @Test
+    public void testBuildMultiLocaleMapParallel() {
+        final Set<Locale> locales = LocaleAwareAnnotationProcessorTool.toLocales(
+            WalkingkookaLanguageTag.all("EN-*,FR-*,ES-*")
+        );
+
+        assertEquals(
+            LocaleAwareAnnotationProcessorTool.buildMultiLocaleMap(
+                LocaleAwareAnnotationProcessorToolTest::firstDayOfWeek,
+                locales
+            ),
+            LocaleAwareAnnotationProcessorTool.buildMultiLocaleMap(
+                LocaleAwareAnnotationProcessorToolTest::firstDayOfWeek,
+                locales,
+                4
+            )
+        );
+    }
+
+    @Test
+    public void testBuildMultiLocaleMapParallelExtractorFails() {
+        final Locale EN_AU = Locale.forLanguageTag("EN-AU");
+        final Locale FR_FR = Locale.forLanguageTag("FR-FR");
+        final Locale ES_ES = Locale.forLanguageTag("ES-ES");
+
+        final IllegalStateException thrown = assertThrows(
+            IllegalStateException.class,
+            () -> LocaleAwareAnnotationProcessorTool.buildMultiLocaleMap(
+                (l) -> {
+                    if (ES_ES == l) {
+                        throw new IllegalArgumentException("Fail " + l.getLanguage());
+                    }
+                    return firstDayOfWeek(l);
+                },
+                Sets.of(EN_AU, FR_FR, ES_ES),
+                2
+            )
+        );
+        this.checkEquals(
+            "Unable to extract value for locale \"es-ES\", Fail es",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testBuildMultiLocaleMapParallelismOneExtractorFailsFast() {
+        final Locale EN_AU = Locale.forLanguageTag("EN-AU");
+        final Locale ES_ES = Locale.forLanguageTag("ES-ES");
+        final Locale FR_FR = Locale.forLanguageTag("FR-FR");
+        final List<Locale> extracted = Lists.array();
+
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> LocaleAwareAnnotationProcessorTool.buildMultiLocaleMap(
+                (l) -> {
+                    extracted.add(l);
+                    if (ES_ES == l) {
+                        throw new IllegalArgumentException("Fail " + l.getLanguage());
+                    }
+                    return firstDayOfWeek(l);
+                },
+                Sets.of(EN_AU, FR_FR, ES_ES),
+                1
+            )
+        );
+        this.checkEquals(
+            "Fail es",
+            thrown.getMessage()
+        );
+        this.checkEquals(
+            Lists.of(EN_AU, ES_ES),
+            extracted
+        );
+    }
+
     private static String firstDayOfWeek(final Locale locale) {
         return DateFormatSymbols.getInstance(locale).getWeekdays()[1];
     }
 
+    @Test
+    public void testIsLoggingNone() throws Exception {
+        this.checkEquals(
+            false,
+            LocaleAwareAnnotationProcessorTool.isLogging(
+                Logging.NONE.loggingDestination(new StringBuilder(), false, null)
+            )
+        );
+    }
+
+    @Test
+    public void testLoggingNoneDestinationNotShared() throws Exception {
+        assertNotSame(
+            Logging.NONE.loggingDestination(new StringBuilder(), false, null),
+            Logging.NONE.loggingDestination(new StringBuilder(), false, null)
+        );
+    }
+
+    @Test
+    public void testIsLoggingSlashSlashComments() throws Exception {
+        this.checkEquals(
+            true,
+            LocaleAwareAnnotationProcessorTool.isLogging(
+                Logging.SLASH_SLASH_COMMENTS.loggingDestination(new StringBuilder(), false, null)
+            )
+        );
+    }
+
+    @Test
+    public void testCommentNoneSkipsSupplier() {
+        LocaleAwareAnnotationProcessorTool.comment(
+            LocaleAwareAnnotationProcessorTool.noComments(),
+            () -> {
+                throw new UnsupportedOperationException();
+            }
+        );
+    }
+
+    @Test
+    public void testComment() throws Exception {
+        final StringBuilder comments = new StringBuilder();
+
+        try (final IndentingPrinter printer = Logging.TXT_FILE.loggingDestination(comments, true, null)) {
+            LocaleAwareAnnotationProcessorTool.comment(printer, () -> "abc");
+            LocaleAwareAnnotationProcessorTool.comment(printer, () -> "def");
+            printer.flush();
+        }
+
+        this.checkEquals("abc" + LineEnding.SYSTEM + "def", comments.toString());
+    }
+
     @Test
     public void testFindMostPopularLocaleKey() {
         final Map<CharSequence, Set<Locale>> valueToLocales = Maps.ordered();
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.LocaleParentDeltaDecoder;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class LocaleParentDeltaEncoderTest implements ClassTesting<LocaleParentDeltaEncoder>,
+    ToStringTesting<LocaleParentDeltaEncoder> {
+
+    @Test
+    public void testWithInvalidFieldCountFails() {
+        assertThrows(IllegalArgumentException.class, () -> LocaleParentDeltaEncoder.with(0));
+    }
+
+    @Test
+    public void testAddEmptyLanguageTagFails() {
+        assertThrows(IllegalArgumentException.class, () -> LocaleParentDeltaEncoder.with(1).add("", "a"));
+    }
+
+    @Test
+    public void testAddWrongFieldCountFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> LocaleParentDeltaEncoder.with(2).add("en", "a")
+        );
+        this.checkEquals("Expected 2 field(s) but got 1 for \"en\"", thrown.getMessage());
+    }
+
+    @Test
+    public void testAddNullFieldFails() {
+        assertThrows(NullPointerException.class, () -> LocaleParentDeltaEncoder.with(2).add("en", "a", null));
+    }
+
+    @Test
+    public void testAddDuplicateFails() {
+        final LocaleParentDeltaEncoder encoder = LocaleParentDeltaEncoder.with(1);
+        encoder.add("en", "a");
+
+        final IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> encoder.add("en", "b"));
+        this.checkEquals("Duplicate record \"en\"", thrown.getMessage());
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        final LocaleParentDeltaEncoder encoder = LocaleParentDeltaEncoder.with(3);
+        encoder.add("en-AU", "Sunday", "$", "AUD");
+        encoder.add("fr", "dimanche", "€", "EUR");
+        encoder.add("en", "Sunday", "$", "USD");
+        encoder.add("en-NZ", "Sunday", "$", "NZD");
+        encoder.add("fr-CA", "dimanche", "$", "CAD");
+
+        this.checkEquals(5, encoder.omittedFields(), "omittedFields");
+
+        final Map<String, String[]> records = this.writeAndRead(encoder);
+        this.checkEquals(
+            Lists.of("en", "fr", "en-AU", "en-NZ", "fr-CA"),
+            new ArrayList<>(records.keySet()),
+            "parents first"
+        );
+        assertArrayEquals(new String[]{"Sunday", "$", "USD"}, records.get("en"), "en");
+        assertArrayEquals(new String[]{"Sunday", "$", "AUD"}, records.get("en-AU"), "en-AU");
+        assertArrayEquals(new String[]{"Sunday", "$", "NZD"}, records.get("en-NZ"), "en-NZ");
+        assertArrayEquals(new String[]{"dimanche", "€", "EUR"}, records.get("fr"), "fr");
+        assertArrayEquals(new String[]{"dimanche", "$", "CAD"}, records.get("fr-CA"), "fr-CA");
+    }
+
+    @Test
+    public void testWriteAndReadWithoutParent() throws IOException {
+        final LocaleParentDeltaEncoder encoder = LocaleParentDeltaEncoder.with(2);
+        encoder.add("en-AU", "a", "b");
+        encoder.add("en-NZ", "a", "b");
+
+        this.checkEquals(0, encoder.omittedFields(), "omittedFields");
+
+        final Map<String, String[]> records = this.writeAndRead(encoder);
+        assertArrayEquals(new String[]{"a", "b"}, records.get("en-AU"), "en-AU");
+        assertArrayEquals(new String[]{"a", "b"}, records.get("en-NZ"), "en-NZ");
+    }
+
+    @Test
+    public void testWriteAndReadManyFields() throws IOException {
+        final int fieldCount = 70;
+        final String[] en = new String[fieldCount];
+        final String[] enAu = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            en[i] = "en" + i;
+            enAu[i] = 0 == i % 33 ?
+                "en-AU" + i :
+                en[i];
+        }
+
+        final LocaleParentDeltaEncoder encoder = LocaleParentDeltaEncoder.with(fieldCount);
+        encoder.add("en", en);
+        encoder.add("en-AU", enAu);
+
+        this.checkEquals(fieldCount - 3, encoder.omittedFields(), "omittedFields");
+
+        final Map<String, String[]> records = this.writeAndRead(encoder);
+        assertArrayEquals(en, records.get("en"), "en");
+        assertArrayEquals(enAu, records.get("en-AU"), "en-AU");
+    }
+
+    private Map<String, String[]> writeAndRead(final LocaleParentDeltaEncoder encoder) throws IOException {
+        final StringBuilder data = new StringBuilder();
+        encoder.write(StringDataInputDataOutput.output(data::append));
+
+        return LocaleParentDeltaDecoder.read(
+            StringDataInputDataOutput.input(data.toString())
+        );
+    }
+
+    @Test
+    public void testToString() {
+        final LocaleParentDeltaEncoder encoder = LocaleParentDeltaEncoder.with(2);
+        encoder.add("en", "a", "b");
+
+        this.toStringAndCheck(encoder, "1 record(s), 2 field(s)");
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<LocaleParentDeltaEncoder> type() {
+        return LocaleParentDeltaEncoder.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.LocaleSectionIndex;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class LocaleSectionDataOutputTest implements ClassTesting<LocaleSectionDataOutput>,
+    ToStringTesting<LocaleSectionDataOutput> {
+
+    private final static List<String> LANGUAGE_TAGS = Lists.of("en", "en-AU", "en-NZ", "fr");
+
+    @Test
+    public void testSectionNullFails() {
+        assertThrows(NullPointerException.class, () -> LocaleSectionDataOutput.with(false).section(null));
+    }
+
+    @Test
+    public void testSectionEmptyFails() {
+        assertThrows(IllegalArgumentException.class, () -> LocaleSectionDataOutput.with(false).section(""));
+    }
+
+    @Test
+    public void testSectionDuplicateFails() {
+        final LocaleSectionDataOutput output = LocaleSectionDataOutput.with(false);
+        output.section("en");
+
+        final IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> output.section("en"));
+        this.checkEquals("Duplicate section \"en\"", thrown.getMessage());
+    }
+
+    @Test
+    public void testWithoutSectionsUnchanged() throws IOException {
+        final LocaleSectionDataOutput output = LocaleSectionDataOutput.with(false);
+        output.writeUTF("abc");
+        output.writeInt(123);
+
+        final StringBuilder expected = new StringBuilder();
+        StringDataInputDataOutput.output(expected::append).writeUTF("abc");
+        StringDataInputDataOutput.output(expected::append).writeInt(123);
+
+        assertEquals(0, output.sectionCount(), "sectionCount");
+        this.checkEquals(expected.toString(), output.data());
+    }
+
+    @Test
+    public void testSections() throws IOException {
+        this.sectionsAndCheck(false);
+    }
+
+    @Test
+    public void testSectionsStringTable() throws IOException {
+        this.sectionsAndCheck(true);
+    }
+
+    private void sectionsAndCheck(final boolean stringTable) throws IOException {
+        final LocaleSectionDataOutput output = LocaleSectionDataOutput.with(stringTable);
+        output.writeInt(LANGUAGE_TAGS.size());
+
+        for (final String languageTag : LANGUAGE_TAGS) {
+            output.section(languageTag);
+            output.writeUTF("shared");
+            output.writeUTF(languageTag);
+            output.writeUTF("shared");
+        }
+
+        assertEquals(LANGUAGE_TAGS.size(), output.sectionCount(), "sectionCount");
+
+        final LocaleSectionIndex index = LocaleSectionIndex.with(output.data());
+        this.checkEquals(LANGUAGE_TAGS, index.languageTags(), "languageTags");
+        this.checkEquals(LANGUAGE_TAGS.size(), index.prologue().readInt(), "prologue");
+
+        // read in reverse order to prove each section is independent
+        for (final String languageTag : Lists.of("fr", "en-NZ", "en-AU", "en")) {
+            final DataInput section = index.section(languageTag);
+            this.checkEquals("shared", section.readUTF(), languageTag);
+            this.checkEquals(languageTag, section.readUTF(), languageTag);
+            this.checkEquals("shared", section.readUTF(), languageTag);
+        }
+    }
+
+    @Test
+    public void testSectionsDeduplicated() throws IOException {
+        this.sectionsDeduplicatedAndCheck(false);
+    }
+
+    @Test
+    public void testSectionsDeduplicatedStringTable() throws IOException {
+        this.sectionsDeduplicatedAndCheck(true);
+    }
+
+    private void sectionsDeduplicatedAndCheck(final boolean stringTable) throws IOException {
+        final LocaleSectionDataOutput output = LocaleSectionDataOutput.with(stringTable);
+        output.writeInt(LANGUAGE_TAGS.size());
+
+        for (final String languageTag : LANGUAGE_TAGS) {
+            output.section(languageTag);
+            output.writeUTF(
+                languageTag.startsWith("en") ?
+                    "english" :
+                    languageTag
+            );
+        }
+
+        final LocaleSectionDataOutput english = LocaleSectionDataOutput.with(stringTable);
+        english.section("en");
+        english.writeUTF("english");
+        final int englishSize = english.sectionSizes().get("en");
+
+        assertEquals(2, output.distinctSectionCount(), "distinctSectionCount");
+        assertEquals(2 * englishSize, output.deduplicatedChars(), "deduplicatedChars");
+
+        final String data = output.data();
+        final LocaleSectionIndex index = LocaleSectionIndex.with(data);
+        this.checkEquals(LANGUAGE_TAGS, index.languageTags(), "languageTags");
+        this.checkEquals(2, index.sectionCount(), "sectionCount");
+        this.checkEquals(LANGUAGE_TAGS.size(), index.prologue().readInt(), "prologue");
+
+        for (final String languageTag : Lists.of("fr", "en-NZ", "en-AU", "en")) {
+            this.checkEquals(
+                languageTag.startsWith("en") ?
+                    "english" :
+                    languageTag,
+                index.section(languageTag).readUTF(),
+                languageTag
+            );
+        }
+
+        this.checkEquals(index.sectionId("en"), index.sectionId("en-AU"), "en-AU");
+        this.checkEquals(index.sectionId("en"), index.sectionId("en-NZ"), "en-NZ");
+        this.checkEquals(false, index.sectionId("en") == index.sectionId("fr"), "fr");
+    }
+
+    @Test
+    public void testDeduplicatedCharsNone() throws IOException {
+        final LocaleSectionDataOutput output = LocaleSectionDataOutput.with(false);
+        output.section("en");
+        output.writeUTF("a");
+        output.section("fr");
+        output.writeUTF("b");
+
+        assertEquals(2, output.distinctSectionCount(), "distinctSectionCount");
+        assertEquals(0, output.deduplicatedChars(), "deduplicatedChars");
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testSectionSizes() throws IOException {
+        final LocaleSectionDataOutput output = LocaleSectionDataOutput.with(false);
+        output.writeUTF("prologue");
+        output.section("en");
+        output.writeUTF("a");
+        output.section("fr");
+        output.writeUTF("bcd");
+
+        final StringBuilder en = new StringBuilder();
+        StringDataInputDataOutput.output(en::append).writeUTF("a");
+        final StringBuilder fr = new StringBuilder();
+        StringDataInputDataOutput.output(fr::append).writeUTF("bcd");
+
+        final StringBuilder prologue = new StringBuilder();
+        StringDataInputDataOutput.output(prologue::append).writeUTF("prologue");
+
+        final Map<String, Integer> expected = Maps.ordered();
+        expected.put(LocaleSectionDataOutput.UNSECTIONED, prologue.length());
+        expected.put("en", en.length());
+        expected.put("fr", fr.length());
+
+        this.checkEquals(expected, output.sectionSizes());
+    }
+
+    @Test
+    public void testSectionSizesWithoutSections() throws IOException {
+        final LocaleSectionDataOutput output = LocaleSectionDataOutput.with(false);
+        output.writeUTF("abc");
+
+        final StringBuilder abc = new StringBuilder();
+        StringDataInputDataOutput.output(abc::append).writeUTF("abc");
+
+        this.checkEquals(
+            Maps.of(LocaleSectionDataOutput.UNSECTIONED, abc.length()),
+            output.sectionSizes()
+        );
+    }
+
+    @Test
+    public void testSectionSizesDeduplicated() throws IOException {
+        final LocaleSectionDataOutput output = LocaleSectionDataOutput.with(false);
+        output.section("en");
+        output.writeUTF("a");
+        output.section("en-AU");
+        output.writeUTF("a");
+        output.section("fr");
+        output.writeUTF("bcd");
+        output.section("en-NZ");
+        output.writeUTF("a");
+
+        final StringBuilder en = new StringBuilder();
+        StringDataInputDataOutput.output(en::append).writeUTF("a");
+        final StringBuilder fr = new StringBuilder();
+        StringDataInputDataOutput.output(fr::append).writeUTF("bcd");
+
+        final Map<String, Integer> sizes = Maps.ordered();
+        sizes.put("en", en.length());
+        sizes.put("fr", fr.length());
+
+        this.checkEquals(sizes, output.sectionSizes(), "sectionSizes");
+
+        final Map<String, Integer> references = Maps.ordered();
+        references.put("en", 3);
+        references.put("fr", 1);
+
+        this.checkEquals(references, output.sectionReferences(), "sectionReferences");
+    }
+
+    @Test
+    public void testToString() {
+        final LocaleSectionDataOutput output = LocaleSectionDataOutput.with(false);
+        output.section("en");
+        output.section("fr");
+
+        this.toStringAndCheck(output, "[en, fr]");
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<LocaleSectionDataOutput> type() {
+        return LocaleSectionDataOutput.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class LocaleSetTest implements ClassTesting<LocaleSet> {
+
+    private final static Locale EN = Locale.forLanguageTag("en");
+    private final static Locale EN_AU = Locale.forLanguageTag("en-AU");
+    private final static Locale FR = Locale.forLanguageTag("fr");
+    private final static Locale FR_CA = Locale.forLanguageTag("fr-CA");
+
+    @Test
+    public void testWithNullFails() {
+        assertThrows(NullPointerException.class, () -> LocaleSet.with(null));
+    }
+
+    @Test
+    public void testWithLocaleSet() {
+        final LocaleSet set = LocaleSet.with(Sets.of(EN, FR));
+        assertSame(set, LocaleSet.with(set));
+    }
+
+    @Test
+    public void testIterationSorted() {
+        this.checkEquals(
+            Lists.of(EN, EN_AU, FR, FR_CA),
+            new ArrayList<>(LocaleSet.with(Lists.of(FR_CA, EN_AU, FR, EN)))
+        );
+    }
+
+    @Test
+    public void testIteratorRemoveFails() {
+        final Iterator<Locale> iterator = LocaleSet.with(Sets.of(EN)).iterator();
+        iterator.next();
+        assertThrows(UnsupportedOperationException.class, iterator::remove);
+    }
+
+    @Test
+    public void testIteratorNextEmptyFails() {
+        assertThrows(NoSuchElementException.class, () -> LocaleSet.with(Sets.empty()).iterator().next());
+    }
+
+    @Test
+    public void testAddFails() {
+        assertThrows(UnsupportedOperationException.class, () -> LocaleSet.with(Sets.of(EN)).add(FR));
+    }
+
+    @Test
+    public void testContains() {
+        final LocaleSet set = LocaleSet.with(Sets.of(EN, FR));
+        this.checkEquals(true, set.contains(EN), "en");
+        this.checkEquals(false, set.contains(EN_AU), "en-AU");
+        this.checkEquals(false, set.contains("en"), "String");
+        this.checkEquals(false, set.contains(null), "null");
+    }
+
+    @Test
+    public void testContainsSameLanguageTag() {
+        final Locale locale = new Locale("en", "AU", "a b"); // an ill formed variant is dropped from the language tag
+        this.checkEquals("en-AU", locale.toLanguageTag(), "languageTag");
+        this.checkEquals(false, EN_AU.equals(locale), "equals");
+
+        this.checkEquals(true, LocaleSet.with(Sets.of(EN, EN_AU)).contains(locale));
+    }
+
+    @Test
+    public void testCardinality() {
+        final LocaleSet set = LocaleSet.with(Sets.of(EN, EN_AU, FR));
+        this.checkEquals(3, set.cardinality(), "cardinality");
+        this.checkEquals(3, set.size(), "size");
+    }
+
+    @Test
+    public void testUnionSameUniverse() {
+        final LocaleSet all = LocaleSet.with(Sets.of(EN, EN_AU, FR, FR_CA));
+        final LocaleSet en = all.intersection(LocaleSet.with(Sets.of(EN, EN_AU)));
+        final LocaleSet fr = all.intersection(LocaleSet.with(Sets.of(FR)));
+
+        final LocaleSet union = en.union(fr);
+        this.checkEquals(Sets.of(EN, EN_AU, FR), union);
+        this.checkEquals(3, union.cardinality());
+        this.checkEquals(Lists.of(EN, EN_AU, FR), new ArrayList<>(union));
+    }
+
+    @Test
+    public void testUnionDifferentUniverse() {
+        final LocaleSet union = LocaleSet.with(Sets.of(FR, EN_AU))
+            .union(LocaleSet.with(Sets.of(EN, FR)));
+        this.checkEquals(Lists.of(EN, EN_AU, FR), new ArrayList<>(union));
+    }
+
+    @Test
+    public void testUnionSame() {
+        final LocaleSet set = LocaleSet.with(Sets.of(EN, FR));
+        assertSame(set, set.union(set));
+    }
+
+    @Test
+    public void testIntersection() {
+        final LocaleSet intersection = LocaleSet.with(Sets.of(EN, EN_AU, FR))
+            .intersection(LocaleSet.with(Sets.of(EN_AU, FR, FR_CA)));
+        this.checkEquals(Lists.of(EN_AU, FR), new ArrayList<>(intersection));
+        this.checkEquals(2, intersection.cardinality());
+    }
+
+    @Test
+    public void testIntersectionEmpty() {
+        this.checkEquals(
+            Sets.empty(),
+            LocaleSet.with(Sets.of(EN))
+                .intersection(LocaleSet.with(Sets.of(FR)))
+        );
+    }
+
+    @Test
+    public void testEquals() {
+        this.checkEquals(
+            Sets.of(EN, FR),
+            LocaleSet.with(Sets.of(FR, EN))
+        );
+        this.checkEquals(
+            LocaleSet.with(Sets.of(FR, EN)),
+            Sets.of(EN, FR)
+        );
+    }
+
+    @Test
+    public void testEqualsDifferent() {
+        assertNotEquals(
+            LocaleSet.with(Sets.of(EN)),
+            LocaleSet.with(Sets.of(EN, FR))
+        );
+    }
+
+    @Test
+    public void testHashCode() {
+        this.checkEquals(
+            Sets.of(EN, FR).hashCode(),
+            LocaleSet.with(Sets.of(FR, EN)).hashCode()
+        );
+    }
+
+    @Test
+    public void testToString() {
+        this.checkEquals(
+            "[en, en-AU, fr]",
+            LocaleSet.with(Sets.of(FR, EN_AU, EN))
+                .toString()
+                .replace('_', '-')
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<LocaleSet> type() {
+        return LocaleSet.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.locale.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.StringTableDataInput;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class StringTableDataOutputTest implements ClassTesting<StringTableDataOutput> {
+
+    @Test
+    public void testWithNullOutputFails() {
+        assertThrows(NullPointerException.class, () -> StringTableDataOutput.with(null));
+    }
+
+    @Test
+    public void testRepeatedStringWrittenOnce() throws IOException {
+        final StringBuilder once = new StringBuilder();
+        final StringTableDataOutput output = StringTableDataOutput.with(StringDataInputDataOutput.output(once::append));
+        output.writeUTF("Australian Eastern Standard Time");
+
+        final StringBuilder repeated = new StringBuilder();
+        final StringTableDataOutput output2 = StringTableDataOutput.with(StringDataInputDataOutput.output(repeated::append));
+        for (int i = 0; i < 10; i++) {
+            output2.writeUTF("Australian Eastern Standard Time");
+        }
+
+        assertEquals(1, output2.size(), "size");
+        assertEquals(once.length() + 9, repeated.length(), () -> "repeated " + repeated);
+    }
+
+    @Test
+    public void testRoundtrip() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final DataOutput output = StringTableDataOutput.with(StringDataInputDataOutput.output(text::append));
+
+        for (int i = 0; i < 300; i++) {
+            output.writeUTF("zone" + (i % 150));
+            output.writeInt(i);
+            output.writeUTF("");
+            output.writeBoolean(0 == i % 2);
+        }
+
+        final DataInput input = StringTableDataInput.input(text.toString());
+        for (int i = 0; i < 300; i++) {
+            assertEquals("zone" + (i % 150), input.readUTF());
+            assertEquals(i, input.readInt());
+            assertEquals("", input.readUTF());
+            assertEquals(0 == i % 2, input.readBoolean());
+        }
+    }
+
+    @Test
+    public void testReadInvalidIndexFails() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final DataOutput output = StringTableDataOutput.with(StringDataInputDataOutput.output(text::append));
+        output.writeUTF("first");
+        output.writeUTF("first");
+
+        final DataInput input = StringTableDataInput.input(text.substring(text.length() - 1));
+        final IOException thrown = assertThrows(IOException.class, input::readUTF);
+        this.checkEquals("Invalid string table index 1 > 0", thrown.getMessage());
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<StringTableDataOutput> type() {
+        return StringTableDataOutput.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}